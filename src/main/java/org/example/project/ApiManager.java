@@ -0,0 +1,78 @@
+package org.example.project;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Looks up exchange rates from the public rate API through a shared
+ * {@link RateProviderClient}. The full rate table for the base currency is fetched once
+ * into a {@link RateSnapshot} and every pair is derived from it locally. The snapshot
+ * is cached for {@code expenses.rates.ttl-seconds}; once expired it is still served for
+ * up to {@code expenses.rates.max-stale-seconds} while a single background refresh
+ * fetches the new table.
+ */
+public class ApiManager {
+    public static final String BASE_CURRENCY = "USD";
+
+    private static final RateProviderClient RATE_CLIENT = RateProviderClient.fromProperties(AppProperties.load());
+
+    private static final TtlCache<String, RateSnapshot> RATE_CACHE = createCache(AppProperties.load());
+
+    private static final List<Consumer<RateSnapshot>> SNAPSHOT_LISTENERS = new CopyOnWriteArrayList<>();
+
+    private ApiManager() {
+    }
+
+    public static double getConversionRate(String fromCurrency, String toCurrency) throws Exception {
+        return getRateSnapshot().crossRate(fromCurrency, toCurrency);
+    }
+
+    public static RateSnapshot getRateSnapshot() throws Exception {
+        return RATE_CACHE.get(BASE_CURRENCY);
+    }
+
+    /**
+     * The most recently fetched snapshot, however old, or null if none has been
+     * fetched yet. Never calls the API.
+     */
+    public static RateSnapshot getLastSnapshot() {
+        return RATE_CACHE.getIfPresent(BASE_CURRENCY);
+    }
+
+    /**
+     * Registers {@code listener} to receive every snapshot fetched from the API.
+     */
+    public static void addSnapshotListener(Consumer<RateSnapshot> listener) {
+        SNAPSHOT_LISTENERS.add(listener);
+    }
+
+    public static TtlCache.Metrics getCacheMetrics() {
+        return RATE_CACHE.getMetrics();
+    }
+
+    public static CircuitBreaker.State getCircuitState() {
+        return RATE_CLIENT.getCircuitState();
+    }
+
+    private static TtlCache<String, RateSnapshot> createCache(Properties properties) {
+        Duration ttl = Duration.ofSeconds(Long.parseLong(properties.getProperty("expenses.rates.ttl-seconds", "300")));
+        Duration maxStale = Duration.ofSeconds(Long.parseLong(properties.getProperty("expenses.rates.max-stale-seconds", "3600")));
+        return new TtlCache<>(ApiManager::fetchRateSnapshot, ttl, maxStale);
+    }
+
+    /**
+     * Fetches a fresh table and notifies the listeners. A failed fetch is thrown to the
+     * cache, which keeps serving the previous table, with its original fetch time, until
+     * it is past {@code expenses.rates.max-stale-seconds}.
+     */
+    private static RateSnapshot fetchRateSnapshot(String baseCurrency) throws Exception {
+        RateSnapshot snapshot = RATE_CLIENT.fetch(baseCurrency);
+        for (Consumer<RateSnapshot> listener : SNAPSHOT_LISTENERS) {
+            listener.accept(snapshot);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public final class AppProperties {
+
+    private static final String PROPERTIES_RESOURCE = "/application.properties";
+
+    private AppProperties() {
+    }
+
+    public static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream input = AppProperties.class.getResourceAsStream(PROPERTIES_RESOURCE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        properties.putAll(System.getProperties());
+        return properties;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.project;
+
+import org.example.project.forecast.Backtester.BacktestReport;
+import org.example.project.forecast.Backtester.BacktestResult;
+import org.example.project.service.CurrencyPredictionService;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BacktestTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 4) {
+            System.err.println("Usage: BacktestTool [window] [horizon] [days] [model,model,...]");
+            System.exit(2);
+        }
+
+        int window = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int horizon = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int days = args.length > 2 ? Integer.parseInt(args[2]) : 365;
+
+        CurrencyPredictionService predictionService = new CurrencyPredictionService();
+        List<String> models = args.length > 3
+                ? Arrays.asList(args[3].split(","))
+                : predictionService.getAvailableModels();
+
+        BacktestReport report = predictionService.backtest(models, window, horizon, days).join();
+
+        System.out.printf("Backtest: window %d days, horizon %d days, %d days of history, %d ms%n",
+                report.window(), report.horizon(), days, report.elapsedMillis());
+        System.out.printf("%-10s %-14s %10s %12s %10s %14s%n", "currency", "model", "forecasts", "MAE", "MAPE %", "ns/forecast");
+        for (BacktestResult result : report.models()) {
+            print(result);
+        }
+        System.out.println();
+        for (BacktestResult result : report.currencies()) {
+            print(result);
+        }
+    }
+
+    private static void print(BacktestResult result) {
+        System.out.printf("%-10s %-14s %10d %12.6f %10.4f %14.0f%n",
+                result.currency(), result.model(), result.forecasts(), result.mae(), result.mape(),
+                result.nanosPerForecast());
+    }
+}
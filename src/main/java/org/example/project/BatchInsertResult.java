@@ -0,0 +1,6 @@
+package org.example.project;
+
+import java.util.Map;
+
+public record BatchInsertResult(int inserted, Map<Integer, String> errors) {
+}
@@ -0,0 +1,122 @@
+package org.example.project;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the {@code category_totals} table (sum, count, min and max of expense
+ * amounts per category). Every method runs on the caller's connection so the
+ * projection changes commit or roll back together with the expense rows.
+ */
+public class CategoryTotalsProjection {
+
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+
+    private static final String AGGREGATE_QUERY = """
+            SELECT c.id AS category_id, c.name,
+                   COALESCE(SUM(e.amount), 0) AS total, COUNT(e.id) AS expense_count,
+                   MIN(e.amount) AS min_amount, MAX(e.amount) AS max_amount
+            FROM categories c
+            LEFT JOIN expenses e ON e.category_id = c.id
+            GROUP BY c.id
+            """;
+
+    public void applyInsert(Connection connection, int categoryId, double total, long count,
+                            double minAmount, double maxAmount) throws SQLException {
+        String upsert = """
+                INSERT INTO category_totals (category_id, total, expense_count, min_amount, max_amount)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (category_id) DO UPDATE SET
+                    total = total + excluded.total,
+                    expense_count = expense_count + excluded.expense_count,
+                    min_amount = MIN(COALESCE(min_amount, excluded.min_amount), excluded.min_amount),
+                    max_amount = MAX(COALESCE(max_amount, excluded.max_amount), excluded.max_amount);
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(upsert)) {
+            statement.setInt(1, categoryId);
+            statement.setDouble(2, total);
+            statement.setLong(3, count);
+            statement.setDouble(4, minAmount);
+            statement.setDouble(5, maxAmount);
+            statement.executeUpdate();
+        }
+    }
+
+    public void applyDelete(Connection connection, int categoryId, double amount) throws SQLException {
+        String update = """
+                UPDATE category_totals SET
+                    total = CASE WHEN expense_count <= 1 THEN 0 ELSE total - ? END,
+                    expense_count = MAX(expense_count - 1, 0),
+                    min_amount = CASE WHEN ? <= min_amount
+                        THEN (SELECT MIN(amount) FROM expenses WHERE category_id = ?) ELSE min_amount END,
+                    max_amount = CASE WHEN ? >= max_amount
+                        THEN (SELECT MAX(amount) FROM expenses WHERE category_id = ?) ELSE max_amount END
+                WHERE category_id = ?;
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(update)) {
+            statement.setDouble(1, amount);
+            statement.setDouble(2, amount);
+            statement.setInt(3, categoryId);
+            statement.setDouble(4, amount);
+            statement.setInt(5, categoryId);
+            statement.setInt(6, categoryId);
+            statement.executeUpdate();
+        }
+    }
+
+    public void removeCategory(Connection connection, String categoryName) throws SQLException {
+        String delete = "DELETE FROM category_totals WHERE category_id = (SELECT id FROM categories WHERE name = ?);";
+        try (PreparedStatement statement = connection.prepareStatement(delete)) {
+            statement.setString(1, categoryName);
+            statement.executeUpdate();
+        }
+    }
+
+    public int rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM category_totals;");
+            return statement.executeUpdate("""
+                    INSERT INTO category_totals (category_id, total, expense_count, min_amount, max_amount)
+                    SELECT category_id, total, expense_count, min_amount, max_amount FROM (%s);
+                    """.formatted(AGGREGATE_QUERY));
+        }
+    }
+
+    public List<String> verify(Connection connection) throws SQLException {
+        String query = """
+                SELECT a.name, a.total, a.expense_count, a.min_amount, a.max_amount,
+                       ct.total AS stored_total, ct.expense_count AS stored_count,
+                       ct.min_amount AS stored_min, ct.max_amount AS stored_max
+                FROM (%s) a
+                LEFT JOIN category_totals ct ON ct.category_id = a.category_id
+                ORDER BY a.name;
+                """.formatted(AGGREGATE_QUERY);
+
+        List<String> mismatches = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+
+            while (resultSet.next()) {
+                long count = resultSet.getLong("expense_count");
+                long storedCount = resultSet.getLong("stored_count");
+                boolean matches = closeTo(resultSet.getDouble("total"), resultSet.getDouble("stored_total"))
+                        && count == storedCount
+                        && (count == 0 || (closeTo(resultSet.getDouble("min_amount"), resultSet.getDouble("stored_min"))
+                        && closeTo(resultSet.getDouble("max_amount"), resultSet.getDouble("stored_max"))));
+                if (!matches) {
+                    mismatches.add(resultSet.getString("name"));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static boolean closeTo(double expected, double actual) {
+        return Math.abs(expected - actual) <= RELATIVE_TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.project;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Bounded pool of long-lived SQLite connections: a single dedicated writer
+ * plus a fixed number of reader connections that are opened lazily and reused.
+ * At most {@code maxPendingWriters} callers may hold or wait for the writer at once;
+ * further writers are rejected immediately with a
+ * {@link SQLTransientConnectionException} rather than parked until the acquire
+ * timeout, which keeps a burst of virtual-thread requests from queueing without
+ * bound behind SQLite's single write lock.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final long VALIDATION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final StorageConfig config;
+    private final int maxReaders;
+    private final long acquireTimeoutMillis;
+    private final int maxPendingWriters;
+
+    private final Semaphore writerPermit = new Semaphore(1, true);
+    private final Semaphore pendingWriterPermits;
+    private final Semaphore readerPermits;
+    private final BlockingQueue<PooledConnection> idleReaders = new LinkedBlockingQueue<>();
+    private PooledConnection writer;
+
+    private final AtomicInteger activeReaders = new AtomicInteger();
+    private final AtomicInteger openReaders = new AtomicInteger();
+    private volatile boolean writerActive;
+    private volatile boolean closed;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong rejectedWriters = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    public ConnectionPool(StorageConfig config) {
+        this.config = config;
+        this.maxReaders = config.readerConnections();
+        this.acquireTimeoutMillis = config.acquireTimeoutMillis();
+        this.maxPendingWriters = config.maxPendingWriters();
+        this.readerPermits = new Semaphore(maxReaders, true);
+        this.pendingWriterPermits = new Semaphore(maxPendingWriters);
+    }
+
+    public StorageConfig getConfig() {
+        return config;
+    }
+
+    public Lease reader() throws SQLException {
+        long start = System.nanoTime();
+        acquirePermit(readerPermits);
+
+        PooledConnection pooled = idleReaders.poll();
+        try {
+            if (pooled == null || !isHealthy(pooled)) {
+                if (pooled != null) {
+                    discard(pooled);
+                }
+                pooled = new PooledConnection(open());
+                openReaders.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            readerPermits.release();
+            throw e;
+        }
+
+        recordWait(start);
+        activeReaders.incrementAndGet();
+        return new Lease(this, pooled, false);
+    }
+
+    public Lease writer() throws SQLException {
+        long start = System.nanoTime();
+        if (!pendingWriterPermits.tryAcquire()) {
+            rejectedWriters.incrementAndGet();
+            throw new SQLTransientConnectionException(
+                    "Database writer is busy: pending write limit of " + maxPendingWriters + " reached");
+        }
+
+        try {
+            acquirePermit(writerPermit);
+        } catch (SQLException e) {
+            pendingWriterPermits.release();
+            throw e;
+        }
+
+        try {
+            if (writer == null || !isHealthy(writer)) {
+                if (writer != null) {
+                    closeQuietly(writer.connection);
+                }
+                writer = new PooledConnection(open());
+            }
+        } catch (SQLException e) {
+            writerPermit.release();
+            pendingWriterPermits.release();
+            throw e;
+        }
+
+        recordWait(start);
+        writerActive = true;
+        return new Lease(this, writer, true);
+    }
+
+    public Metrics getMetrics() {
+        long count = acquisitions.get();
+        double averageWaitMillis = count == 0 ? 0 : totalWaitNanos.get() / (double) count / 1_000_000;
+        return new Metrics(
+                maxReaders,
+                activeReaders.get(),
+                idleReaders.size(),
+                openReaders.get(),
+                writerActive,
+                maxPendingWriters - pendingWriterPermits.availablePermits(),
+                rejectedWriters.get(),
+                count,
+                timeouts.get(),
+                averageWaitMillis,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection pooled;
+        while ((pooled = idleReaders.poll()) != null) {
+            discard(pooled);
+        }
+        if (writer != null && writerPermit.tryAcquire()) {
+            closeQuietly(writer.connection);
+            writer = null;
+            writerPermit.release();
+        }
+    }
+
+    protected Connection open() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        Connection connection = DriverManager.getConnection(config.url());
+        try {
+            config.applyPragmas(connection);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    private void acquirePermit(Semaphore permits) throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private void recordWait(long start) {
+        long waited = System.nanoTime() - start;
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulate(waited);
+    }
+
+    private boolean isHealthy(PooledConnection pooled) {
+        try {
+            if (pooled.connection.isClosed()) {
+                return false;
+            }
+            if (System.nanoTime() - pooled.lastUsedNanos < VALIDATION_INTERVAL_NANOS) {
+                return true;
+            }
+            return pooled.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Lease lease) {
+        PooledConnection pooled = lease.pooled;
+        boolean reusable = !closed;
+        try {
+            if (!pooled.connection.isClosed() && !pooled.connection.getAutoCommit()) {
+                pooled.connection.rollback();
+                pooled.connection.setAutoCommit(true);
+            }
+            reusable &= !pooled.connection.isClosed();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+        pooled.lastUsedNanos = System.nanoTime();
+
+        if (lease.writer) {
+            writerActive = false;
+            if (!reusable) {
+                closeQuietly(pooled.connection);
+                writer = null;
+            }
+            writerPermit.release();
+            pendingWriterPermits.release();
+        } else {
+            activeReaders.decrementAndGet();
+            if (reusable) {
+                idleReaders.offer(pooled);
+            } else {
+                discard(pooled);
+            }
+            readerPermits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        openReaders.decrementAndGet();
+        closeQuietly(pooled.connection);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class PooledConnection {
+        private final Connection connection;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final ConnectionPool pool;
+        private final PooledConnection pooled;
+        private final boolean writer;
+        private boolean released;
+
+        private Lease(ConnectionPool pool, PooledConnection pooled, boolean writer) {
+            this.pool = pool;
+            this.pooled = pooled;
+            this.writer = writer;
+        }
+
+        public Connection connection() {
+            return pooled.connection;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                pool.release(this);
+            }
+        }
+    }
+
+    public record Metrics(int maxReaders, int activeReaders, int idleReaders, int openReaders,
+                          boolean writerActive, int pendingWriters, long rejectedWriters,
+                          long acquisitions, long timeouts,
+                          double averageWaitMillis, double maxWaitMillis) {
+    }
+}
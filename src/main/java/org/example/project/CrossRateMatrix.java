@@ -0,0 +1,91 @@
+package org.example.project;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every cross rate between the currencies of one {@link RateSnapshot}, including its
+ * base, precomputed into a flat row-major {@code double[]}. Entry {@code i * n + j} is
+ * the number of units of currency {@code j} per one unit of currency {@code i}, so a
+ * pair lookup is two binary searches and one array read.
+ */
+public final class CrossRateMatrix {
+
+    private final String[] codes;
+    private final double[] matrix;
+
+    private CrossRateMatrix(String[] codes, double[] matrix) {
+        this.codes = codes;
+        this.matrix = matrix;
+    }
+
+    public static CrossRateMatrix of(RateSnapshot snapshot) {
+        List<String> currencies = snapshot.getCurrencies();
+        String[] codes = currencies.contains(snapshot.getBase())
+                ? currencies.toArray(new String[0])
+                : appendSorted(currencies, snapshot.getBase());
+
+        int n = codes.length;
+        double[] baseRates = new double[n];
+        for (int i = 0; i < n; i++) {
+            baseRates[i] = snapshot.rate(codes[i]);
+        }
+
+        double[] matrix = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            double inverse = 1.0 / baseRates[i];
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                matrix[row + j] = baseRates[j] * inverse;
+            }
+            matrix[row + i] = 1.0;
+        }
+        return new CrossRateMatrix(codes, matrix);
+    }
+
+    private static String[] appendSorted(List<String> currencies, String base) {
+        String[] codes = currencies.toArray(new String[currencies.size() + 1]);
+        codes[codes.length - 1] = base;
+        Arrays.sort(codes);
+        return codes;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean contains(String currency) {
+        return indexOf(currency) >= 0;
+    }
+
+    public List<String> getCurrencies() {
+        return List.of(codes);
+    }
+
+    /**
+     * Units of {@code toCurrency} per one unit of {@code fromCurrency}.
+     */
+    public double rate(String fromCurrency, String toCurrency) {
+        return matrix[require(fromCurrency) * codes.length + require(toCurrency)];
+    }
+
+    /**
+     * The rates from {@code fromCurrency} to every currency, in {@link #getCurrencies()} order.
+     */
+    public double[] row(String fromCurrency) {
+        int from = require(fromCurrency) * codes.length;
+        return Arrays.copyOfRange(matrix, from, from + codes.length);
+    }
+
+    private int require(String currency) {
+        int index = indexOf(currency);
+        if (index < 0) {
+            throw new IllegalArgumentException("Currency '" + currency + "' not found in cross-rate matrix");
+        }
+        return index;
+    }
+
+    private int indexOf(String currency) {
+        return Arrays.binarySearch(codes, currency);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.project;
+
+import org.example.project.forecast.ForecastModelRegistry;
+
+/**
+ * Everything derived from one load of a currency's history: the history itself, the
+ * forecast, the change between the latest and the last forecast rate, and the
+ * recommendation text.
+ */
+public class CurrencyForecast {
+    private final String currency;
+    private final String model;
+    private final RateSeries historicalRates;
+    private final RateSeries predictions;
+    private final double currentRate;
+    private final double predictedRate;
+    private final double changePercentage;
+    private final String recommendation;
+
+    private CurrencyForecast(String currency, String model, RateSeries historicalRates,
+                             RateSeries predictions, double currentRate,
+                             double predictedRate, double changePercentage, String recommendation) {
+        this.currency = currency;
+        this.model = model;
+        this.historicalRates = historicalRates;
+        this.predictions = predictions;
+        this.currentRate = currentRate;
+        this.predictedRate = predictedRate;
+        this.changePercentage = changePercentage;
+        this.recommendation = recommendation;
+    }
+
+    public static CurrencyForecast from(String currency, RateSeries historicalRates,
+                                        RateSeries predictions) {
+        return from(currency, ForecastModelRegistry.DEFAULT_MODEL, historicalRates, predictions);
+    }
+
+    public static CurrencyForecast from(String currency, String model, RateSeries historicalRates,
+                                        RateSeries predictions) {
+        return create(ApiManager.BASE_CURRENCY, currency, currency, model, historicalRates, predictions);
+    }
+
+    /**
+     * Forecast of units of {@code quote} per unit of {@code base}, reported as currency
+     * {@code "BASE/QUOTE"}.
+     */
+    public static CurrencyForecast forPair(String base, String quote, String model, RateSeries historicalRates,
+                                           RateSeries predictions) {
+        return create(base, quote, base + "/" + quote, model, historicalRates, predictions);
+    }
+
+    private static CurrencyForecast create(String base, String quote, String currency, String model,
+                                           RateSeries historicalRates, RateSeries predictions) {
+        double currentRate = historicalRates.isEmpty() ? 1.0 : historicalRates.last();
+
+        double predictedRate = predictions.isEmpty() ? currentRate : predictions.last();
+
+        double changePercentage = ((predictedRate - currentRate) / currentRate) * 100;
+
+        return new CurrencyForecast(currency, model, historicalRates, predictions, currentRate, predictedRate,
+                changePercentage, recommendation(base, quote, changePercentage));
+    }
+
+    private static String recommendation(String base, String quote, double changePercentage) {
+        if (Math.abs(changePercentage) < 0.5) {
+            return "Stable - No significant change expected";
+        } else if (changePercentage > 0) {
+            return String.format("%s likely to strengthen against %s (%.2f%% increase)",
+                    base, quote, changePercentage);
+        } else {
+            return String.format("%s likely to weaken against %s (%.2f%% decrease)",
+                    base, quote, Math.abs(changePercentage));
+        }
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public RateSeries getHistoricalRates() {
+        return historicalRates;
+    }
+
+    public RateSeries getPredictions() {
+        return predictions;
+    }
+
+    public double getCurrentRate() {
+        return currentRate;
+    }
+
+    public double getPredictedRate() {
+        return predictedRate;
+    }
+
+    public double getChangePercentage() {
+        return changePercentage;
+    }
+
+    public String getRecommendation() {
+        return recommendation;
+    }
+}
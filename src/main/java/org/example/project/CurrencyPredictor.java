@@ -1,181 +1,254 @@
 package org.example.project;
 
-import org.json.JSONObject;
+import org.example.project.forecast.ForecastModel;
+import org.example.project.forecast.ForecastModelRegistry;
+import org.example.project.forecast.LeastSquaresModel;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class CurrencyPredictor {
 
-    private static final String HISTORICAL_API_URL = "https://open.er-api.com/v6/latest/";
+    private static final String DEFAULT_CURRENCIES = "EUR,GBP,JPY,AUD,RON";
 
-    private static final String[] SUPPORTED_CURRENCIES = {"EUR", "GBP", "JPY", "AUD", "RON"};
+    public static final int DEFAULT_WINDOW_DAYS = 30;
 
-    private static final String BASE_CURRENCY = "USD";
+    public static final int DEFAULT_HORIZON_DAYS = 7;
 
-    public Map<LocalDate, Double> getHistoricalRates(String currency) throws Exception {
-        Map<LocalDate, Double> historicalRates = new LinkedHashMap<>();
+    public static final int MAX_WINDOW_DAYS = 730;
 
-        String apiUrl = HISTORICAL_API_URL + BASE_CURRENCY;
+    public static final int MAX_HORIZON_DAYS = 365;
 
-        URL url = new URL(apiUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
+    public static final int MAX_BACKTEST_DAYS = MAX_WINDOW_DAYS + MAX_HORIZON_DAYS;
 
-        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
+    private final RateHistoryStore rateHistory;
+    private final ForecastModelRegistry models;
+    private final Properties modelSettings;
+    private final CopyOnWriteArrayList<String> supportedCurrencies = new CopyOnWriteArrayList<>();
+    private final Map<String, RegressionState> regressions = new ConcurrentHashMap<>();
 
-        while ((line = reader.readLine()) != null) {
-            response.append(line);
-        }
-        reader.close();
+    public CurrencyPredictor() {
+        this(DatabaseManager.getInstance().getRateHistory());
+    }
 
-        JSONObject jsonResponse = new JSONObject(response.toString());
+    public CurrencyPredictor(RateHistoryStore rateHistory) {
+        this(rateHistory, ForecastModelRegistry.withBuiltIns(), AppProperties.load());
+    }
 
-        if (!jsonResponse.has("rates")) {
-            throw new Exception("API response format unexpected. Response: " + jsonResponse.toString());
+    /**
+     * {@code modelSettings} selects the model per currency through
+     * {@code expenses.predictions.model.<CURRENCY>}, falling back to
+     * {@code expenses.predictions.model} and then {@link ForecastModelRegistry#DEFAULT_MODEL};
+     * {@code expenses.predictions.currencies} lists the currencies predicted by default.
+     */
+    public CurrencyPredictor(RateHistoryStore rateHistory, ForecastModelRegistry models, Properties modelSettings) {
+        this.rateHistory = rateHistory;
+        this.models = models;
+        this.modelSettings = modelSettings;
+        for (String currency : modelSettings.getProperty("expenses.predictions.currencies", DEFAULT_CURRENCIES).split(",")) {
+            if (!currency.isBlank()) {
+                supportedCurrencies.add(currency.trim().toUpperCase(Locale.ROOT));
+            }
         }
+    }
 
-        JSONObject rates = jsonResponse.getJSONObject("rates");
-
-        if (!rates.has(currency)) {
-            throw new Exception("Currency '" + currency + "' not found in API response");
-        }
+    public ForecastModelRegistry getModels() {
+        return models;
+    }
 
-        double currentRate = rates.getDouble(currency);
+    public String getModelFor(String currency) {
+        String fallback = modelSettings.getProperty("expenses.predictions.model", ForecastModelRegistry.DEFAULT_MODEL);
+        return modelSettings.getProperty("expenses.predictions.model." + currency, fallback);
+    }
 
-        Random random = new Random(currency.hashCode());
-        double rate = currentRate;
+    public RateSeries getHistoricalRates(String currency) throws Exception {
+        return requireHistory(currency, DEFAULT_WINDOW_DAYS);
+    }
 
-        LocalDate today = LocalDate.now();
+    private RateSeries requireHistory(String currency, int days) throws Exception {
+        RateSeries historicalRates = getHistoricalRates(currency, days);
 
-        double trendBias = (random.nextDouble() - 0.5) * 0.001;
+        if (historicalRates.isEmpty()) {
+            throw new Exception("No rate history recorded for currency '" + currency + "'");
+        }
 
-        for (int i = 0; i < 30; i++) {
-            LocalDate date = today.minusDays(i);
+        return historicalRates;
+    }
 
-            historicalRates.put(date, rate);
+    /**
+     * The recorded daily rates of the last {@code days} days; empty if none were recorded.
+     */
+    public RateSeries getHistoricalRates(String currency, int days) throws SQLException {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return rateHistory.readDaily(currency, today.minusDays(days - 1), today);
+    }
 
-            double change = (random.nextDouble() - 0.5) * 0.005 + trendBias;
-            rate = rate * (1 + change);
-        }
+    /**
+     * Loads the history for {@code currency} once and derives the forecast, change
+     * percentage and recommendation from it.
+     */
+    public CurrencyForecast predict(String currency) throws Exception {
+        return predict(currency, getModelFor(currency));
+    }
 
-        Map<LocalDate, Double> sortedRates = new LinkedHashMap<>();
-        historicalRates.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEachOrdered(entry -> sortedRates.put(entry.getKey(), entry.getValue()));
+    public CurrencyForecast predict(String currency, String modelName) throws Exception {
+        return predict(currency, modelName, DEFAULT_WINDOW_DAYS, DEFAULT_HORIZON_DAYS);
+    }
 
-        return sortedRates;
+    /**
+     * Fits {@code modelName} on the last {@code window} days and forecasts the next
+     * {@code horizon} days in one pass.
+     */
+    public CurrencyForecast predict(String currency, String modelName, int window, int horizon) throws Exception {
+        checkWindowAndHorizon(window, horizon);
+        ForecastModel model = models.get(modelName);
+        RateSeries historicalRates = requireHistory(currency, window);
+        return CurrencyForecast.from(currency, model.name(), historicalRates,
+                forecast(currency, model, historicalRates, window, horizon));
     }
 
-    public Map<LocalDate, Double> predictFutureRates(String currency) throws Exception {
-        Map<LocalDate, Double> historicalRates = getHistoricalRates(currency);
+    public static void checkWindowAndHorizon(int window, int horizon) {
+        if (window < 2 || window > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("window must be between 2 and " + MAX_WINDOW_DAYS + " days: " + window);
+        }
+        if (horizon < 1 || horizon > MAX_HORIZON_DAYS) {
+            throw new IllegalArgumentException("horizon must be between 1 and " + MAX_HORIZON_DAYS + " days: " + horizon);
+        }
+    }
 
-        double[] x = new double[historicalRates.size()];
-        double[] y = new double[historicalRates.size()];
+    /**
+     * Forecasts units of {@code quote} per unit of {@code base}. The pair's history is
+     * derived day by day from the two recorded USD-based series, so any two currencies
+     * in the upstream rate table can be paired without another API call.
+     */
+    public CurrencyForecast predictPair(String base, String quote, String modelName, int window, int horizon)
+            throws Exception {
+        checkWindowAndHorizon(window, horizon);
+        ForecastModel model = models.get(modelName);
+        RateSeries historicalRates = getPairHistory(base, quote, window);
+        return CurrencyForecast.forPair(base, quote, model.name(), historicalRates,
+                forecast(base + "/" + quote, model, historicalRates, window, horizon));
+    }
 
-        int i = 0;
-        for (Map.Entry<LocalDate, Double> entry : historicalRates.entrySet()) {
-            x[i] = i;
-            y[i] = entry.getValue();
-            i++;
+    /**
+     * Daily units of {@code quote} per unit of {@code base} over the days both currencies
+     * have recorded rates in the last {@code days} days.
+     */
+    public RateSeries getPairHistory(String base, String quote, int days) throws Exception {
+        if (base.equals(quote)) {
+            throw new IllegalArgumentException("A currency pair needs two different currencies: " + base + "/" + quote);
+        }
+        if (base.equals(ApiManager.BASE_CURRENCY)) {
+            return requireHistory(quote, days);
         }
 
-        SimpleLinearRegression regression = new SimpleLinearRegression(x, y);
-        regression.calculate();
+        RateSeries baseRates = requireHistory(base, days);
+        RateSeries quoteRates = quote.equals(ApiManager.BASE_CURRENCY) ? null : requireHistory(quote, days);
 
-        Map<LocalDate, Double> predictions = new LinkedHashMap<>();
-        LocalDate lastDate = historicalRates.keySet().stream().max(LocalDate::compareTo).orElse(LocalDate.now());
+        long start = quoteRates == null ? baseRates.startEpochDay()
+                : Math.max(baseRates.startEpochDay(), quoteRates.startEpochDay());
+        long end = quoteRates == null ? baseRates.endEpochDay()
+                : Math.min(baseRates.endEpochDay(), quoteRates.endEpochDay());
+        if (end < start) {
+            throw new Exception("No overlapping rate history for " + base + "/" + quote);
+        }
 
-        for (int day = 1; day <= 7; day++) {
-            LocalDate futureDate = lastDate.plusDays(day);
-            double prediction = regression.predict(x.length - 1 + day);
-            predictions.put(futureDate, prediction);
+        int length = (int) (end - start + 1);
+        int baseOffset = (int) (start - baseRates.startEpochDay());
+        int quoteOffset = quoteRates == null ? 0 : (int) (start - quoteRates.startEpochDay());
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            double quoteRate = quoteRates == null ? 1.0 : quoteRates.get(quoteOffset + i);
+            values[i] = quoteRate / baseRates.get(baseOffset + i);
         }
+        return RateSeries.wrap(start, values, length);
+    }
 
-        return predictions;
+    public RateSeries predictFutureRates(String currency) throws Exception {
+        return predict(currency).getPredictions();
     }
 
     public List<String> getSupportedCurrencies() {
-        return Arrays.asList(SUPPORTED_CURRENCIES);
+        return Collections.unmodifiableList(supportedCurrencies);
     }
 
-    public double getPredictedChangePercentage(String currency) throws Exception {
-        Map<LocalDate, Double> historicalRates = getHistoricalRates(currency);
-        Map<LocalDate, Double> predictions = predictFutureRates(currency);
-
-        double currentRate = historicalRates.values().stream().reduce((first, second) -> second).orElse(1.0);
-
-        double futureRate = predictions.values().stream().reduce((first, second) -> second).orElse(currentRate);
+    /**
+     * Adds {@code currency} to the predicted currencies if {@code snapshot} quotes it;
+     * returns false if it was already supported.
+     */
+    public boolean addSupportedCurrency(String currency, RateSnapshot snapshot) {
+        if (!snapshot.contains(currency)) {
+            throw new IllegalArgumentException("Currency '" + currency + "' is not in the upstream rate table");
+        }
+        return supportedCurrencies.addIfAbsent(currency);
+    }
 
-        return ((futureRate - currentRate) / currentRate) * 100;
+    public double getPredictedChangePercentage(String currency) throws Exception {
+        return predict(currency).getChangePercentage();
     }
 
     public Map<String, String> getCurrencyRecommendations() throws Exception {
         Map<String, String> recommendations = new HashMap<>();
 
-        for (String currency : SUPPORTED_CURRENCIES) {
-            double changePercentage = getPredictedChangePercentage(currency);
-
-            String recommendation;
-            if (Math.abs(changePercentage) < 0.5) {
-                recommendation = "Stable - No significant change expected";
-            } else if (changePercentage > 0) {
-                recommendation = String.format("USD likely to strengthen against %s (%.2f%% change)",
-                        currency, changePercentage);
-            } else {
-                recommendation = String.format("USD likely to weaken against %s (%.2f%% change)",
-                        currency, Math.abs(changePercentage));
-            }
-
-            recommendations.put(currency, recommendation);
+        for (String currency : supportedCurrencies) {
+            recommendations.put(currency, predict(currency).getRecommendation());
         }
 
         return recommendations;
     }
 
-    private static class SimpleLinearRegression {
-        private final double[] x;
-        private final double[] y;
-        private double a;
-        private double b;
-
-        public SimpleLinearRegression(double[] x, double[] y) {
-            this.x = x;
-            this.y = y;
+    private RateSeries forecast(String currency, ForecastModel model, RateSeries historicalRates,
+                                int historyWindow, int horizon) {
+        if (!(model instanceof LeastSquaresModel leastSquares)) {
+            return model.forecast(historicalRates, horizon);
         }
 
-        public void calculate() {
-            int n = x.length;
-
-            double meanX = Arrays.stream(x).average().orElse(0);
-            double meanY = Arrays.stream(y).average().orElse(0);
+        int window = leastSquares.windowFor(historyWindow);
+        SlidingWindowRegression.Fit fit = regressions
+                .computeIfAbsent(currency + "/" + model.name() + "/" + window, key -> new RegressionState(window))
+                .advanceTo(historicalRates);
+        return LeastSquaresModel.extrapolate(fit, historicalRates.endEpochDay(), horizon);
+    }
 
-            double numerator = 0;
-            double denominator = 0;
+    /**
+     * The regression window last fitted for one currency and least-squares model. When the history has only
+     * moved forward since the previous call, just the new or corrected days are
+     * applied to the running sums; otherwise the window is rebuilt from the series.
+     * The fit is read before the lock is released, because the regression itself keeps
+     * changing under concurrent requests.
+     */
+    private static class RegressionState {
+        private final int window;
+        private SlidingWindowRegression regression;
+        private long endEpochDay;
+
+        RegressionState(int window) {
+            this.window = window;
+        }
 
-            for (int i = 0; i < n; i++) {
-                numerator += (x[i] - meanX) * (y[i] - meanY);
-                denominator += Math.pow(x[i] - meanX, 2);
+        synchronized SlidingWindowRegression.Fit advanceTo(RateSeries series) {
+            long start = series.startEpochDay();
+            boolean canAdvance = regression != null
+                    && endEpochDay >= start
+                    && endEpochDay <= series.endEpochDay();
+
+            if (canAdvance) {
+                regression.updateLast(series.get((int) (endEpochDay - start)));
+                for (long day = endEpochDay + 1; day <= series.endEpochDay(); day++) {
+                    regression.add(series.get((int) (day - start)));
+                }
             }
 
-            if (denominator != 0) {
-                b = numerator / denominator;
-            } else {
-                b = 0;
+            if (!canAdvance || regression.size() != Math.min(series.size(), window)) {
+                regression = SlidingWindowRegression.of(series, window);
             }
-
-            a = meanY - b * meanX;
-        }
-
-        public double predict(double x) {
-            return a + b * x;
+            endEpochDay = series.endEpochDay();
+            return regression.fit();
         }
     }
-}
\ No newline at end of file
+}
@@ -1,42 +1,143 @@
 package org.example.project;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-public class DatabaseManager {
-
-    private final String dbUrl = "jdbc:sqlite:expenses.db";
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DatabaseManager implements AutoCloseable {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static volatile DatabaseManager sharedInstance;
+
+    private final ConnectionPool pool;
+    private final WalCheckpointScheduler checkpointScheduler;
+    private final ExecutorService rateHistoryWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-history-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CategoryTotalsProjection categoryTotals = new CategoryTotalsProjection();
+    private final RateHistoryStore rateHistory;
+    private final AtomicLong lastCompactedDay = new AtomicLong(-1);
+    private final String dataVersionPrefix = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong dataVersion = new AtomicLong();
+    private int schemaVersion;
 
     public DatabaseManager() {
+        this(new ConnectionPool(StorageConfig.load()));
+    }
+
+    public DatabaseManager(ConnectionPool pool) {
+        this.pool = pool;
+        this.rateHistory = new RateHistoryStore(pool, RateHistoryStore.RetentionPolicy.fromProperties(AppProperties.load()));
         initializeDatabase();
+
+        StorageConfig config = pool.getConfig();
+        this.checkpointScheduler = new WalCheckpointScheduler(pool);
+        if (config.isWal() && config.checkpointIntervalSeconds() > 0) {
+            checkpointScheduler.start(config.checkpointIntervalSeconds());
+        }
     }
 
-    private void initializeDatabase() {
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             Statement statement = connection.createStatement()) {
-
-            String createCategoriesTable = """
-                    CREATE TABLE IF NOT EXISTS categories (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        name TEXT UNIQUE NOT NULL
-                    );
-                    """;
-            statement.execute(createCategoriesTable);
-
-            String createExpensesTable = """
-                    CREATE TABLE IF NOT EXISTS expenses (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        category_id INTEGER NOT NULL,
-                        amount REAL NOT NULL,
-                        transaction_date TEXT NOT NULL,
-                        expense_date TEXT NOT NULL,
-                        currency TEXT NOT NULL,
-                        FOREIGN KEY (category_id) REFERENCES categories (id)
-                    );
-                    """;
-            statement.execute(createExpensesTable);
+    public static DatabaseManager getInstance() {
+        DatabaseManager instance = sharedInstance;
+        if (instance == null) {
+            synchronized (DatabaseManager.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new DatabaseManager();
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "database-pool-shutdown"));
+                    ApiManager.addSnapshotListener(instance::recordRateSnapshotInBackground);
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
 
+    /**
+     * Identifies the current state of the categories and expenses: a counter bumped
+     * after every committed write through this instance, prefixed with the instance's
+     * start time so a version from before a restart never matches one after it. Writes
+     * made by another process sharing the database file are not counted.
+     */
+    public String getDataVersion() {
+        return dataVersionPrefix + "-" + dataVersion.get();
+    }
+
+    public ConnectionPool.Metrics getPoolMetrics() {
+        return pool.getMetrics();
+    }
+
+    public RateHistoryStore getRateHistory() {
+        return rateHistory;
+    }
+
+    /**
+     * Appends every rate in {@code snapshot} to the rate history and applies the
+     * retention policy the first time a snapshot from a new UTC day is recorded.
+     */
+    public void recordRateSnapshot(RateSnapshot snapshot) throws SQLException {
+        rateHistory.append(snapshot);
+
+        long day = snapshot.getFetchedAt().getEpochSecond() / 86_400;
+        long previous = lastCompactedDay.get();
+        if (day > previous && lastCompactedDay.compareAndSet(previous, day)) {
+            rateHistory.compact(snapshot.getFetchedAt());
+        }
+    }
+
+    /**
+     * Queues {@link #recordRateSnapshot} on a single background writer, so the request
+     * whose cache miss fetched the rates does not wait for the insert or the daily
+     * compaction. Snapshots are still recorded one at a time, in arrival order.
+     */
+    public void recordRateSnapshotInBackground(RateSnapshot snapshot) {
+        try {
+            rateHistoryWriter.execute(() -> recordRateSnapshotQuietly(snapshot));
+        } catch (RejectedExecutionException e) {
+            // Closing: the pool is going away and the snapshot cannot be stored anyway.
+        }
+    }
+
+    private void recordRateSnapshotQuietly(RateSnapshot snapshot) {
+        try {
+            recordRateSnapshot(snapshot);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() {
+        checkpointScheduler.close();
+        rateHistoryWriter.shutdown();
+        try {
+            rateHistoryWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.close();
+    }
+
+    private void initializeDatabase() {
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            schemaVersion = new SchemaMigrator().migrate(lease.connection());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -44,8 +145,8 @@ public class DatabaseManager {
 
     public List<String> getCategories() throws SQLException {
         List<String> categories = new ArrayList<>();
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             Statement statement = connection.createStatement();
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
              ResultSet resultSet = statement.executeQuery("SELECT name FROM categories ORDER BY name")) {
 
             while (resultSet.next()) {
@@ -55,80 +156,175 @@ public class DatabaseManager {
         return categories;
     }
 
-    public List<String> getExpensesByCategory(String categoryName) throws SQLException {
-        List<String> expenses = new ArrayList<>();
+    public List<ExpenseRow> getExpensesByCategory(String categoryName) throws SQLException {
+        List<ExpenseRow> expenses = new ArrayList<>();
         String query = """
-                SELECT e.id, e.amount, e.transaction_date, e.expense_date, e.currency
+                SELECT e.id, e.category_id, c.name, e.amount, e.transaction_date, e.expense_date, e.currency
                 FROM expenses e
                 JOIN categories c ON e.category_id = c.id
                 WHERE c.name = ?
                 ORDER BY e.id;
                 """;
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (ConnectionPool.Lease lease = pool.reader();
+             PreparedStatement preparedStatement = lease.connection().prepareStatement(query)) {
 
             preparedStatement.setString(1, categoryName);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 while (resultSet.next()) {
-                    String expense = String.format(
-                            "[ID %d] Amount: %.2f USD, Transaction Date: %s, Expense Date: %s, Original Currency: %s",
-                            resultSet.getInt("id"),
-                            resultSet.getDouble("amount"),
-                            resultSet.getString("transaction_date"),
-                            resultSet.getString("expense_date"),
-                            resultSet.getString("currency")
-                    );
-                    expenses.add(expense);
+                    expenses.add(ExpenseRow.fromResultSet(resultSet));
                 }
             }
         }
         return expenses;
     }
 
-    public List<String> getAllExpenses() throws SQLException {
-        List<String> expenses = new ArrayList<>();
+    public List<ExpenseRow> getAllExpenses() throws SQLException {
+        List<ExpenseRow> expenses = new ArrayList<>();
         String query = """
-                SELECT e.id, c.name AS category, e.amount, e.transaction_date, e.expense_date, e.currency
+                SELECT e.id, e.category_id, c.name, e.amount, e.transaction_date, e.expense_date, e.currency
                 FROM expenses e
                 JOIN categories c ON e.category_id = c.id
                 ORDER BY e.id;
                 """;
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             Statement statement = connection.createStatement();
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
 
             while (resultSet.next()) {
-                String expense = String.format(
-                        "[ID %d] Category: %s, Amount: %.2f USD, Transaction Date: %s, Expense Date: %s, Original Currency: %s",
-                        resultSet.getInt("id"),
-                        resultSet.getString("category"),
-                        resultSet.getDouble("amount"),
-                        resultSet.getString("transaction_date"),
-                        resultSet.getString("expense_date"),
-                        resultSet.getString("currency")
-                );
-                expenses.add(expense);
+                expenses.add(ExpenseRow.fromResultSet(resultSet));
             }
         }
         return expenses;
     }
 
+    public interface ExpenseRowConsumer {
+        void accept(ExpenseRow row) throws IOException;
+    }
+
+    /**
+     * Passes every expense, in id order, to {@code consumer}, reading keyset chunks of
+     * {@code chunkSize} rows ({@code id > last id}, as {@link #findExpenses} does). Each
+     * chunk is read under its own short reader lease, which is released before the rows
+     * are handed on, so a slow consumer holds no connection or read transaction and does
+     * not block WAL checkpoints. Rows committed while the export runs are included if
+     * their id is past the current chunk. Returns the number of rows read.
+     */
+    public long forEachExpense(int chunkSize, ExpenseRowConsumer consumer) throws SQLException, IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        String query = """
+                SELECT e.id, e.category_id, c.name, e.amount, e.transaction_date, e.expense_date, e.currency
+                FROM expenses e
+                JOIN categories c ON e.category_id = c.id
+                WHERE e.id > ?
+                ORDER BY e.id
+                LIMIT ?;
+                """;
+
+        long rows = 0;
+        int afterId = 0;
+        List<ExpenseRow> chunk = new ArrayList<>(Math.min(chunkSize, 1024));
+        do {
+            chunk.clear();
+            try (ConnectionPool.Lease lease = pool.reader();
+                 PreparedStatement preparedStatement = lease.connection().prepareStatement(query)) {
+
+                preparedStatement.setInt(1, afterId);
+                preparedStatement.setInt(2, chunkSize);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        chunk.add(ExpenseRow.fromResultSet(resultSet));
+                    }
+                }
+            }
+
+            for (ExpenseRow row : chunk) {
+                consumer.accept(row);
+            }
+            rows += chunk.size();
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).id();
+            }
+        } while (chunk.size() == chunkSize);
+        return rows;
+    }
+
+    /**
+     * One keyset page: rows are read in id order starting after {@code query.afterId()},
+     * so a page costs the same no matter how deep into the ledger it is. One extra row
+     * is read to tell whether another page follows.
+     */
+    public ExpensePage findExpenses(ExpenseQuery query) throws SQLException {
+        StringBuilder sql = new StringBuilder("""
+                SELECT e.id, e.category_id, c.name, e.amount, e.transaction_date, e.expense_date, e.currency
+                FROM expenses e
+                JOIN categories c ON e.category_id = c.id
+                WHERE e.id > ?
+                """);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(query.afterId());
+
+        if (query.category() != null) {
+            sql.append(" AND e.category_id = (SELECT id FROM categories WHERE name = ?)");
+            parameters.add(query.category());
+        }
+        if (query.fromDate() != null) {
+            sql.append(" AND e.expense_date >= ?");
+            parameters.add(query.fromDate());
+        }
+        if (query.toDate() != null) {
+            sql.append(" AND e.expense_date <= ?");
+            parameters.add(query.toDate());
+        }
+        if (query.minAmount() != null) {
+            sql.append(" AND e.amount >= ?");
+            parameters.add(query.minAmount());
+        }
+        if (query.maxAmount() != null) {
+            sql.append(" AND e.amount <= ?");
+            parameters.add(query.maxAmount());
+        }
+        sql.append(" ORDER BY e.id LIMIT ?;");
+        parameters.add(query.limit() + 1);
+
+        List<ExpenseRow> rows = new ArrayList<>(Math.min(query.limit() + 1, 1024));
+        try (ConnectionPool.Lease lease = pool.reader();
+             PreparedStatement preparedStatement = lease.connection().prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(ExpenseRow.fromResultSet(resultSet));
+                }
+            }
+        }
+
+        if (rows.size() <= query.limit()) {
+            return new ExpensePage(rows, null);
+        }
+        rows.remove(rows.size() - 1);
+        return new ExpensePage(rows, rows.get(rows.size() - 1).id());
+    }
+
     public void addCategory(String categoryName) throws SQLException {
         String insertCategory = "INSERT INTO categories (name) VALUES (?);";
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement preparedStatement = connection.prepareStatement(insertCategory)) {
+        try (ConnectionPool.Lease lease = pool.writer();
+             PreparedStatement preparedStatement = lease.connection().prepareStatement(insertCategory)) {
             preparedStatement.setString(1, categoryName);
             preparedStatement.executeUpdate();
         }
+        dataVersion.incrementAndGet();
     }
 
     public boolean deleteCategory(String categoryName, boolean deleteExpenses) throws SQLException {
-        Connection connection = null;
-        try {
-            connection = DriverManager.getConnection(dbUrl);
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
             connection.setAutoCommit(false);
 
             if (!deleteExpenses) {
@@ -156,6 +352,8 @@ public class DatabaseManager {
                 }
             }
 
+            categoryTotals.removeCategory(connection, categoryName);
+
             String deleteCategoryQuery = "DELETE FROM categories WHERE name = ?;";
             try (PreparedStatement deleteStatement = connection.prepareStatement(deleteCategoryQuery)) {
                 deleteStatement.setString(1, categoryName);
@@ -163,43 +361,46 @@ public class DatabaseManager {
 
                 if (rowsAffected > 0) {
                     connection.commit();
+                    dataVersion.incrementAndGet();
                     return true;
                 } else {
                     connection.rollback();
                     return false;
                 }
             }
-        } catch (SQLException e) {
-            if (connection != null) {
-                try {
-                    connection.rollback();
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            throw e;
-        } finally {
-            if (connection != null) {
-                try {
-                    connection.setAutoCommit(true);
-                    connection.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            }
         }
     }
 
     public boolean deleteExpense(int expenseId) throws SQLException {
+        String selectQuery = "SELECT category_id, amount FROM expenses WHERE id = ?;";
         String deleteQuery = "DELETE FROM expenses WHERE id = ?;";
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement statement = connection.prepareStatement(deleteQuery)) {
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+
+            int categoryId;
+            double amount;
+            try (PreparedStatement selectStatement = connection.prepareStatement(selectQuery)) {
+                selectStatement.setInt(1, expenseId);
+                try (ResultSet resultSet = selectStatement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    categoryId = resultSet.getInt("category_id");
+                    amount = resultSet.getDouble("amount");
+                }
+            }
 
-            statement.setInt(1, expenseId);
-            int rowsAffected = statement.executeUpdate();
+            try (PreparedStatement statement = connection.prepareStatement(deleteQuery)) {
+                statement.setInt(1, expenseId);
+                statement.executeUpdate();
+            }
 
-            return rowsAffected > 0;
+            categoryTotals.applyDelete(connection, categoryId, amount);
+            connection.commit();
+            dataVersion.incrementAndGet();
+            return true;
         }
     }
 
@@ -208,36 +409,177 @@ public class DatabaseManager {
             throw new SQLException("Category does not exist.");
         }
 
-        double convertedAmount = amount;
-        if (!currency.equals("USD")) {
-            double conversionRate = ApiManager.getConversionRate(currency, "USD");
-            convertedAmount = amount * conversionRate;
+        double convertedAmount = amount * getUsdConversionRate(currency);
+
+        String insertExpense = """
+            INSERT INTO expenses (category_id, amount, transaction_date, expense_date, currency)
+            VALUES (?, ?, ?, ?, ?);
+            """;
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+
+            int categoryId = findCategoryId(connection, categoryName);
+            if (categoryId < 0) {
+                throw new SQLException("Category does not exist.");
+            }
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(insertExpense)) {
+                preparedStatement.setInt(1, categoryId);
+                preparedStatement.setDouble(2, convertedAmount);
+                preparedStatement.setString(3, transactionDate);
+                preparedStatement.setString(4, expenseDate);
+                preparedStatement.setString(5, currency);
+                preparedStatement.executeUpdate();
+            }
+
+            categoryTotals.applyInsert(connection, categoryId, convertedAmount, 1, convertedAmount, convertedAmount);
+            connection.commit();
+            dataVersion.incrementAndGet();
+        }
+    }
+
+    public BatchInsertResult addExpenses(List<NewExpense> expenses) throws SQLException {
+        Map<String, Double> conversionRates = new HashMap<>();
+        Map<String, String> conversionErrors = new HashMap<>();
+        for (NewExpense expense : expenses) {
+            String currency = expense.currency();
+            if (!conversionRates.containsKey(currency) && !conversionErrors.containsKey(currency)) {
+                try {
+                    conversionRates.put(currency, getUsdConversionRate(currency));
+                } catch (Exception e) {
+                    conversionErrors.put(currency, "Currency conversion failed for " + currency + ": " + e.getMessage());
+                }
+            }
         }
+        return insertExpenses(expenses, conversionRates, conversionErrors);
+    }
 
+    public BatchInsertResult addExpenses(List<NewExpense> expenses, Map<String, Double> usdConversionRates) throws SQLException {
+        return insertExpenses(expenses, usdConversionRates, Map.of());
+    }
+
+    public double getUsdConversionRate(String currency) throws Exception {
+        if (currency.equals("USD")) {
+            return 1.0;
+        }
+        return ApiManager.getConversionRate(currency, "USD");
+    }
+
+    private BatchInsertResult insertExpenses(List<NewExpense> expenses, Map<String, Double> conversionRates,
+                                             Map<String, String> conversionErrors) throws SQLException {
         String insertExpense = """
             INSERT INTO expenses (category_id, amount, transaction_date, expense_date, currency)
-            VALUES (
-                (SELECT id FROM categories WHERE name = ?),
-                ?, ?, ?, ?
-            );
+            VALUES (?, ?, ?, ?, ?);
             """;
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement preparedStatement = connection.prepareStatement(insertExpense)) {
+        Map<Integer, String> errors = new TreeMap<>();
+        Map<Integer, double[]> aggregates = new HashMap<>();
+        int inserted = 0;
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            Map<String, Integer> categoryIds = getCategoryIds(connection);
+
+            try (PreparedStatement preparedStatement = connection.prepareStatement(insertExpense)) {
+                int pending = 0;
+                for (int i = 0; i < expenses.size(); i++) {
+                    NewExpense expense = expenses.get(i);
+                    Integer categoryId = categoryIds.get(expense.categoryName());
+                    if (categoryId == null) {
+                        errors.put(i, "Category does not exist.");
+                        continue;
+                    }
+                    Double conversionRate = conversionRates.get(expense.currency());
+                    if (conversionRate == null) {
+                        errors.put(i, conversionErrors.getOrDefault(expense.currency(),
+                                "No conversion rate available for " + expense.currency()));
+                        continue;
+                    }
+
+                    double convertedAmount = expense.amount() * conversionRate;
+                    preparedStatement.setInt(1, categoryId);
+                    preparedStatement.setDouble(2, convertedAmount);
+                    preparedStatement.setString(3, expense.transactionDate());
+                    preparedStatement.setString(4, expense.expenseDate());
+                    preparedStatement.setString(5, expense.currency());
+                    preparedStatement.addBatch();
+
+                    double[] aggregate = aggregates.computeIfAbsent(categoryId,
+                            id -> new double[]{0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+                    aggregate[0] += convertedAmount;
+                    aggregate[1]++;
+                    aggregate[2] = Math.min(aggregate[2], convertedAmount);
+                    aggregate[3] = Math.max(aggregate[3], convertedAmount);
+
+                    inserted++;
+                    if (++pending == INSERT_BATCH_SIZE) {
+                        preparedStatement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    preparedStatement.executeBatch();
+                }
+            }
+
+            for (Map.Entry<Integer, double[]> entry : aggregates.entrySet()) {
+                double[] aggregate = entry.getValue();
+                categoryTotals.applyInsert(connection, entry.getKey(), aggregate[0], (long) aggregate[1], aggregate[2], aggregate[3]);
+            }
+            connection.commit();
+            if (inserted > 0) {
+                dataVersion.incrementAndGet();
+            }
+        }
+
+        return new BatchInsertResult(inserted, errors);
+    }
+
+    public int rebuildCategoryTotals() throws SQLException {
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            int rebuilt = categoryTotals.rebuild(connection);
+            connection.commit();
+            dataVersion.incrementAndGet();
+            return rebuilt;
+        }
+    }
 
+    public List<String> verifyCategoryTotals() throws SQLException {
+        try (ConnectionPool.Lease lease = pool.reader()) {
+            return categoryTotals.verify(lease.connection());
+        }
+    }
+
+    private Map<String, Integer> getCategoryIds(Connection connection) throws SQLException {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, name FROM categories;")) {
+
+            while (resultSet.next()) {
+                categoryIds.put(resultSet.getString("name"), resultSet.getInt("id"));
+            }
+        }
+        return categoryIds;
+    }
+
+    private int findCategoryId(Connection connection, String categoryName) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT id FROM categories WHERE name = ?;")) {
             preparedStatement.setString(1, categoryName);
-            preparedStatement.setDouble(2, convertedAmount);
-            preparedStatement.setString(3, transactionDate);
-            preparedStatement.setString(4, expenseDate);
-            preparedStatement.setString(5, currency);
-            preparedStatement.executeUpdate();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt("id") : -1;
+            }
         }
     }
 
     private boolean categoryExists(String categoryName) throws SQLException {
         String query = "SELECT 1 FROM categories WHERE name = ?;";
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (ConnectionPool.Lease lease = pool.reader();
+             PreparedStatement preparedStatement = lease.connection().prepareStatement(query)) {
 
             preparedStatement.setString(1, categoryName);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -248,14 +590,14 @@ public class DatabaseManager {
 
     public double getTotalExpensesByCategory(String categoryName) throws SQLException {
         String query = """
-                SELECT SUM(amount) as total
-                FROM expenses e
-                JOIN categories c ON e.category_id = c.id
+                SELECT ct.total
+                FROM category_totals ct
+                JOIN categories c ON ct.category_id = c.id
                 WHERE c.name = ?;
                 """;
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (ConnectionPool.Lease lease = pool.reader();
+             PreparedStatement preparedStatement = lease.connection().prepareStatement(query)) {
 
             preparedStatement.setString(1, categoryName);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -267,11 +609,31 @@ public class DatabaseManager {
         }
     }
 
+    public Map<String, Double> getCategoryTotals() throws SQLException {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        String query = """
+                SELECT c.name, COALESCE(ct.total, 0) AS total
+                FROM categories c
+                LEFT JOIN category_totals ct ON ct.category_id = c.id
+                ORDER BY c.name;
+                """;
+
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+
+            while (resultSet.next()) {
+                totals.put(resultSet.getString("name"), resultSet.getDouble("total"));
+            }
+        }
+        return totals;
+    }
+
     public double getTotalExpenses() throws SQLException {
-        String query = "SELECT SUM(amount) as total FROM expenses;";
+        String query = "SELECT SUM(total) as total FROM category_totals;";
 
-        try (Connection connection = DriverManager.getConnection(dbUrl);
-             Statement statement = connection.createStatement();
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
              ResultSet resultSet = statement.executeQuery(query)) {
 
             if (resultSet.next()) {
@@ -0,0 +1,47 @@
+package org.example.project;
+
+import org.example.project.dto.ApiDTOs.BatchExpenseResponse.RowError;
+import org.example.project.dto.ApiDTOs.ImportReportResponse;
+import org.example.project.service.ExpenseImportService;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ExpenseImportTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: ExpenseImportTool <file> [csv|ndjson]");
+            System.exit(2);
+        }
+
+        Path file = Path.of(args[0]);
+        ExpenseImportService.Format format = args.length == 2
+                ? ExpenseImportService.Format.fromName(args[1])
+                : formatFromFileName(file);
+
+        ExpenseImportService importService = new ExpenseImportService(DatabaseManager.getInstance());
+        try (InputStream input = Files.newInputStream(file)) {
+            ImportReportResponse report = importService.importExpenses(input, format, progress -> System.out.printf(
+                    "%s %d rows read, %d imported, %d rejected (%.0f rows/s)%n",
+                    progress.isCompleted() ? "Finished:" : "Progress:",
+                    progress.getRowsRead(), progress.getRowsImported(), progress.getRowsRejected(),
+                    progress.getRowsPerSecond()));
+
+            for (RowError error : report.getErrors()) {
+                System.out.printf("  line %d: %s%n", error.getIndex(), error.getMessage());
+            }
+            if (report.getRowsRejected() > report.getErrors().size()) {
+                System.out.printf("  ... %d more rejected rows%n", report.getRowsRejected() - report.getErrors().size());
+            }
+        }
+    }
+
+    private static ExpenseImportService.Format formatFromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? ExpenseImportService.Format.NDJSON
+                : ExpenseImportService.Format.CSV;
+    }
+}
@@ -14,18 +14,17 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.concurrent.Task;
 import javafx.scene.control.cell.PropertyValueFactory;
+import org.example.project.dto.ApiDTOs.ReportResponse;
+import org.example.project.service.ExpenseService;
 
 import java.sql.SQLException;
-import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ExpenseManagerApp extends Application {
 
-    private final DatabaseManager dbManager = new DatabaseManager();
+    private final DatabaseManager dbManager = DatabaseManager.getInstance();
+    private final ExpenseService expenseService = new ExpenseService(dbManager);
 
     private Scene mainScene;
 
@@ -37,7 +36,7 @@ public class ExpenseManagerApp extends Application {
     private DatePicker transactionDatePicker;
     private DatePicker expenseDatePicker;
     private ComboBox<String> currencyComboBox;
-    private ListView<String> expenseListView;
+    private ListView<ExpenseRow> expenseListView;
     private Label statusMessage;
 
     @Override
@@ -196,6 +195,14 @@ public class ExpenseManagerApp extends Application {
 
         expenseListView = new ListView<>();
         expenseListView.setPrefHeight(200);
+        expenseListView.setPlaceholder(new Label("No expenses found."));
+        expenseListView.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ExpenseRow expense, boolean empty) {
+                super.updateItem(expense, empty);
+                setText(empty || expense == null ? null : formatExpense(expense));
+            }
+        });
 
         ContextMenu contextMenu = new ContextMenu();
         MenuItem deleteMenuItem = new MenuItem("Delete");
@@ -253,28 +260,33 @@ public class ExpenseManagerApp extends Application {
         ListView<String> categoryBreakdownList = new ListView<>();
         categoryBreakdownList.setPrefHeight(200);
 
-        try {
-            double totalExpenses = dbManager.getTotalExpenses();
-            totalExpensesLabel.setText(String.format("Total Expenses: $%.2f USD", totalExpenses));
-
-            List<String> categories = dbManager.getCategories();
-            ObservableList<String> breakdownItems = FXCollections.observableArrayList();
+        Task<ReportResponse> loadReportTask = new Task<>() {
+            @Override
+            protected ReportResponse call() throws Exception {
+                return expenseService.generateReport();
+            }
+        };
 
-            for (String category : categories) {
-                double categoryTotal = dbManager.getTotalExpensesByCategory(category);
-                double percentage = totalExpenses > 0 ? (categoryTotal / totalExpenses) * 100 : 0;
+        loadReportTask.setOnSucceeded(e -> {
+            ReportResponse report = loadReportTask.getValue();
+            totalExpensesLabel.setText(String.format("Total Expenses: $%.2f USD", report.getTotalExpenses()));
 
+            ObservableList<String> breakdownItems = FXCollections.observableArrayList();
+            for (ReportResponse.CategoryBreakdown breakdown : report.getCategoryBreakdowns()) {
                 breakdownItems.add(String.format(
                         "%s: $%.2f (%.1f%%)",
-                        category, categoryTotal, percentage
+                        breakdown.getCategory(), breakdown.getTotal(), breakdown.getPercentage()
                 ));
             }
-
             categoryBreakdownList.setItems(breakdownItems);
+        });
 
-        } catch (SQLException e) {
-            totalExpensesLabel.setText("Error loading expenses: " + e.getMessage());
-        }
+        loadReportTask.setOnFailed(e ->
+                totalExpensesLabel.setText("Error loading expenses: " + loadReportTask.getException().getMessage()));
+
+        Thread reportThread = new Thread(loadReportTask);
+        reportThread.setDaemon(true);
+        reportThread.start();
 
         reportsContent.getChildren().addAll(
                 totalExpensesLabel,
@@ -360,38 +372,26 @@ public class ExpenseManagerApp extends Application {
         Task<ObservableList<CurrencyPredictionData>> loadPredictionsTask = new Task<>() {
             @Override
             protected ObservableList<CurrencyPredictionData> call() throws Exception {
-                CurrencyPredictor predictor = new CurrencyPredictor();
+                try {
+                    ApiManager.getRateSnapshot();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+
+                CurrencyPredictor predictor = new CurrencyPredictor(dbManager.getRateHistory());
                 List<String> currencies = predictor.getSupportedCurrencies();
 
                 ObservableList<CurrencyPredictionData> predictionData = FXCollections.observableArrayList();
 
                 for (String currency : currencies) {
-                    Map<LocalDate, Double> historicalRates = predictor.getHistoricalRates(currency);
-                    Map<LocalDate, Double> predictions = predictor.predictFutureRates(currency);
-
-                    double currentRate = historicalRates.values().stream()
-                            .reduce((first, second) -> second).orElse(1.0);
-
-                    double futureRate = predictions.values().stream()
-                            .reduce((first, second) -> second).orElse(currentRate);
-
-                    double changePercentage = ((futureRate - currentRate) / currentRate) * 100;
-
-                    String recommendation;
-                    if (Math.abs(changePercentage) < 0.5) {
-                        recommendation = "Stable";
-                    } else if (changePercentage > 0) {
-                        recommendation = "USD likely to strengthen";
-                    } else {
-                        recommendation = "USD likely to weaken";
-                    }
+                    CurrencyForecast forecast = predictor.predict(currency);
 
                     CurrencyPredictionData data = new CurrencyPredictionData(
                             currency,
-                            String.format("1 USD = %.4f %s", currentRate, currency),
-                            String.format("1 USD = %.4f %s", futureRate, currency),
-                            String.format("%.2f%%", changePercentage),
-                            recommendation
+                            String.format("1 USD = %.4f %s", forecast.getCurrentRate(), currency),
+                            String.format("1 USD = %.4f %s", forecast.getPredictedRate(), currency),
+                            String.format("%.2f%%", forecast.getChangePercentage()),
+                            forecast.getRecommendation()
                     );
 
                     predictionData.add(data);
@@ -547,25 +547,18 @@ public class ExpenseManagerApp extends Application {
     }
 
     private void deleteSelectedExpense() {
-        String selectedExpense = expenseListView.getSelectionModel().getSelectedItem();
-        if (selectedExpense == null || selectedExpense.startsWith("No expenses found")) {
+        ExpenseRow selectedExpense = expenseListView.getSelectionModel().getSelectedItem();
+        if (selectedExpense == null) {
             showAlert(Alert.AlertType.WARNING, "Warning", "Please select a valid expense to delete.");
             return;
         }
 
-        Pattern pattern = Pattern.compile("\\[ID (\\d+)\\]");
-        Matcher matcher = pattern.matcher(selectedExpense);
-        if (!matcher.find()) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Could not identify expense ID.");
-            return;
-        }
-
-        int expenseId = Integer.parseInt(matcher.group(1));
+        int expenseId = selectedExpense.id();
 
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
         confirmAlert.setTitle("Confirm Deletion");
         confirmAlert.setHeaderText("Delete Expense");
-        confirmAlert.setContentText("Are you sure you want to delete this expense?\n\n" + selectedExpense);
+        confirmAlert.setContentText("Are you sure you want to delete this expense?\n\n" + formatExpense(selectedExpense));
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isEmpty() || result.get() != ButtonType.OK) {
@@ -593,12 +586,9 @@ public class ExpenseManagerApp extends Application {
 
     private void viewAllExpenses() {
         try {
-            List<String> expenses = dbManager.getAllExpenses();
-            if (expenses.isEmpty()) {
-                expenseListView.getItems().setAll("No expenses found.");
-            } else {
-                expenseListView.getItems().setAll(expenses);
-            }
+            List<ExpenseRow> expenses = dbManager.getAllExpenses();
+            expenseListView.setPlaceholder(new Label("No expenses found."));
+            expenseListView.getItems().setAll(expenses);
         } catch (SQLException e) {
             showAlert(Alert.AlertType.ERROR, "Error", "Unable to load expenses: " + e.getMessage());
         }
@@ -612,17 +602,26 @@ public class ExpenseManagerApp extends Application {
         }
 
         try {
-            List<String> expenses = dbManager.getExpensesByCategory(categoryName);
-            if (expenses.isEmpty()) {
-                expenseListView.getItems().setAll("No expenses found for category: " + categoryName);
-            } else {
-                expenseListView.getItems().setAll(expenses);
-            }
+            List<ExpenseRow> expenses = dbManager.getExpensesByCategory(categoryName);
+            expenseListView.setPlaceholder(new Label("No expenses found for category: " + categoryName));
+            expenseListView.getItems().setAll(expenses);
         } catch (SQLException e) {
             setStatusMessage("Error loading expenses: " + e.getMessage(), "error");
         }
     }
 
+    private static String formatExpense(ExpenseRow expense) {
+        return String.format(
+                "[ID %d] Category: %s, Amount: %.2f USD, Transaction Date: %s, Expense Date: %s, Original Currency: %s",
+                expense.id(),
+                expense.category(),
+                expense.amount(),
+                expense.transactionDate(),
+                expense.expenseDate(),
+                expense.currency()
+        );
+    }
+
     private void setStatusMessage(String message, String type) {
         Platform.runLater(() -> {
             statusMessage.setText(message);
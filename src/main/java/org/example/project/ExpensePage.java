@@ -0,0 +1,10 @@
+package org.example.project;
+
+import java.util.List;
+
+/**
+ * A page of expenses in id order. {@code nextAfter} is the {@code after} value for the
+ * following page, or null when this is the last one.
+ */
+public record ExpensePage(List<ExpenseRow> items, Integer nextAfter) {
+}
@@ -0,0 +1,46 @@
+package org.example.project;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One page of the expense listing: up to {@code limit} expenses with an id greater
+ * than {@code afterId}, optionally restricted to a category, an expense date range and
+ * a USD amount range. Null filters are not applied; the bounds are inclusive.
+ */
+public record ExpenseQuery(String category, int afterId, int limit, String fromDate, String toDate,
+                           Double minAmount, Double maxAmount) {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    public static final int MAX_LIMIT = 1000;
+
+    public ExpenseQuery {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+        }
+        if (afterId < 0) {
+            throw new IllegalArgumentException("after must not be negative: " + afterId);
+        }
+        checkDate("from", fromDate);
+        checkDate("to", toDate);
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new IllegalArgumentException("minAmount must not exceed maxAmount");
+        }
+    }
+
+    public static ExpenseQuery firstPage(int limit) {
+        return new ExpenseQuery(null, 0, limit, null, null, null, null);
+    }
+
+    private static void checkDate(String name, String date) {
+        if (date == null) {
+            return;
+        }
+        try {
+            LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be an ISO date (yyyy-MM-dd): " + date);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * One stored expense as read from the database. The amount is the converted USD value
+ * in cents; display formatting is left to the caller.
+ */
+public record ExpenseRow(int id, int categoryId, String category, long amountCents, String transactionDate,
+                         String expenseDate, String currency) {
+
+    /**
+     * Maps the current row of a query selecting {@code id, category_id, category,
+     * amount, transaction_date, expense_date, currency}, in that order.
+     */
+    static ExpenseRow fromResultSet(ResultSet resultSet) throws SQLException {
+        return new ExpenseRow(
+                resultSet.getInt(1),
+                resultSet.getInt(2),
+                resultSet.getString(3),
+                Math.round(resultSet.getDouble(4) * 100),
+                resultSet.getString(5),
+                resultSet.getString(6),
+                resultSet.getString(7)
+        );
+    }
+
+    public double amount() {
+        return amountCents / 100.0;
+    }
+}
@@ -7,13 +7,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-
 public class Model {
 
     public static class Category implements Serializable {
@@ -145,24 +138,3 @@ class DuplicateCategoryException extends Exception {
         super(message);
     }
 }
-
-class ApiManager {
-    private static final String API_URL = "https://api.exchangerate-api.com/v4/latest/";
-
-    public static double getConversionRate(String fromCurrency, String toCurrency) throws Exception {
-        URL url = new URL(API_URL + fromCurrency);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-        connection.setRequestMethod("GET");
-
-        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            response.append(line);
-        }
-        reader.close();
-
-        JSONObject jsonResponse = new JSONObject(response.toString());
-        return jsonResponse.getJSONObject("rates").getDouble(toCurrency);
-    }
-}
\ No newline at end of file
@@ -0,0 +1,4 @@
+package org.example.project;
+
+public record NewExpense(String categoryName, double amount, String transactionDate, String expenseDate, String currency) {
+}
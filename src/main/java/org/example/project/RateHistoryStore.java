@@ -0,0 +1,157 @@
+package org.example.project;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Properties;
+
+/**
+ * Append-only history of fetched exchange rates in the {@code rate_history} table,
+ * keyed by (currency, observed_at) so a currency's window is one index range scan.
+ * Observations older than the raw retention are downsampled to the last one of each
+ * UTC day, and anything older than the retention period is dropped.
+ */
+public class RateHistoryStore {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final ConnectionPool pool;
+    private final RetentionPolicy retention;
+
+    public RateHistoryStore(ConnectionPool pool, RetentionPolicy retention) {
+        this.pool = pool;
+        this.retention = retention;
+    }
+
+    public RetentionPolicy getRetention() {
+        return retention;
+    }
+
+    public int append(RateSnapshot snapshot) throws SQLException {
+        String insert = "INSERT OR IGNORE INTO rate_history (currency, observed_at, rate) VALUES (?, ?, ?);";
+        long observedAt = snapshot.getFetchedAt().getEpochSecond();
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                for (String currency : snapshot.getCurrencies()) {
+                    statement.setString(1, currency);
+                    statement.setLong(2, observedAt);
+                    statement.setDouble(3, snapshot.rate(currency));
+                    statement.addBatch();
+                }
+                int inserted = 0;
+                for (int count : statement.executeBatch()) {
+                    inserted += Math.max(count, 0);
+                }
+                connection.commit();
+                return inserted;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The last observed rate of each UTC day in {@code [from, to]}, from the first to
+     * the last day with an observation. Days in between without one carry the previous
+     * day's rate forward.
+     */
+    public RateSeries readDaily(String currency, LocalDate from, LocalDate to) throws SQLException {
+        String query = """
+                SELECT observed_at, rate FROM rate_history
+                WHERE currency = ? AND observed_at >= ? AND observed_at < ?
+                ORDER BY observed_at;
+                """;
+
+        long fromDay = from.toEpochDay();
+        double[] values = new double[(int) (to.toEpochDay() - fromDay + 1)];
+        int first = -1;
+        int last = -1;
+
+        try (ConnectionPool.Lease lease = pool.reader();
+             PreparedStatement statement = lease.connection().prepareStatement(query)) {
+
+            statement.setString(1, currency);
+            statement.setLong(2, fromDay * SECONDS_PER_DAY);
+            statement.setLong(3, (to.toEpochDay() + 1) * SECONDS_PER_DAY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    int index = (int) (resultSet.getLong(1) / SECONDS_PER_DAY - fromDay);
+                    if (first < 0) {
+                        first = index;
+                    }
+                    for (int gap = last + 1; last >= 0 && gap < index; gap++) {
+                        values[gap] = values[last];
+                    }
+                    values[index] = resultSet.getDouble(2);
+                    last = index;
+                }
+            }
+        }
+
+        if (first < 0) {
+            return RateSeries.empty();
+        }
+        if (first > 0) {
+            System.arraycopy(values, first, values, 0, last - first + 1);
+        }
+        return RateSeries.wrap(fromDay + first, values, last - first + 1);
+    }
+
+    /**
+     * Applies the retention policy as of {@code now}; returns the number of rows removed.
+     */
+    public int compact(Instant now) throws SQLException {
+        long rawCutoff = now.minus(retention.rawRetention()).getEpochSecond();
+        long cutoff = now.minus(retention.retention()).getEpochSecond();
+
+        String expire = "DELETE FROM rate_history WHERE observed_at < ?;";
+        String downsample = """
+                DELETE FROM rate_history
+                WHERE observed_at < ?
+                  AND (currency, observed_at) NOT IN (
+                      SELECT currency, MAX(observed_at) FROM rate_history
+                      WHERE observed_at < ?
+                      GROUP BY currency, observed_at / 86400
+                  );
+                """;
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            Connection connection = lease.connection();
+            connection.setAutoCommit(false);
+            try (PreparedStatement expireStatement = connection.prepareStatement(expire);
+                 PreparedStatement downsampleStatement = connection.prepareStatement(downsample)) {
+
+                expireStatement.setLong(1, cutoff);
+                int removed = expireStatement.executeUpdate();
+
+                downsampleStatement.setLong(1, rawCutoff);
+                downsampleStatement.setLong(2, rawCutoff);
+                removed += downsampleStatement.executeUpdate();
+
+                connection.commit();
+                return removed;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    public record RetentionPolicy(Duration rawRetention, Duration retention) {
+
+        public static RetentionPolicy fromProperties(Properties properties) {
+            return new RetentionPolicy(
+                    Duration.ofDays(Long.parseLong(properties.getProperty("expenses.rates.history.raw-retention-days", "7"))),
+                    Duration.ofDays(Long.parseLong(properties.getProperty("expenses.rates.history.retention-days", "730")))
+            );
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.project;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client for the exchange rate API on one shared {@link HttpClient}, so connections are
+ * kept alive (and multiplexed over HTTP/2 where the server offers it) across calls.
+ * Every attempt is bounded by a connect and a request timeout; retryable failures are
+ * retried with exponential backoff and full jitter. Each fetch, with all of its retries,
+ * counts once towards the {@link CircuitBreaker}, and consecutive failed fetches open it
+ * so a dead upstream is not called on every request.
+ */
+public class RateProviderClient {
+
+    private final URI baseUri;
+    private final Settings settings;
+    private final HttpClient http;
+    private final CircuitBreaker circuitBreaker;
+
+    public RateProviderClient(URI baseUri, Settings settings) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration());
+    }
+
+    public static RateProviderClient fromProperties(Properties properties) {
+        return new RateProviderClient(
+                URI.create(properties.getProperty("expenses.rates.api-url", "https://api.exchangerate-api.com/v4/latest/")),
+                Settings.fromProperties(properties));
+    }
+
+    /**
+     * Fetches the rate table for {@code base}, blocking until it arrives or every
+     * attempt has failed.
+     */
+    public RateSnapshot fetch(String base) throws Exception {
+        try {
+            return fetchAsync(base).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * Fetches the rate table for {@code base} without blocking the caller. The future
+     * fails with a {@link RateProviderException} once the attempts are used up or
+     * while the circuit is open.
+     */
+    public CompletableFuture<RateSnapshot> fetchAsync(String base) {
+        if (!circuitBreaker.allowRequest()) {
+            return CompletableFuture.failedFuture(
+                    new RateProviderException("Rate provider circuit is open; not calling " + baseUri, false));
+        }
+        return attempt(base, 1).whenComplete((snapshot, error) -> {
+            // A non-retryable failure (4xx, unusable body) still means the provider answered.
+            if (error == null || !toFailure(error).isRetryable()) {
+                circuitBreaker.recordSuccess();
+            } else {
+                circuitBreaker.recordFailure();
+            }
+        });
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private CompletableFuture<RateSnapshot> attempt(String base, int attempt) {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(base))
+                .timeout(settings.requestTimeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> parse(base, response))
+                .handle((snapshot, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(snapshot);
+                    }
+
+                    RateProviderException failure = toFailure(error);
+                    if (!failure.isRetryable() || attempt >= settings.maxAttempts()) {
+                        return CompletableFuture.<RateSnapshot>failedFuture(failure);
+                    }
+                    return CompletableFuture
+                            .runAsync(() -> { }, CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> attempt(base, attempt + 1));
+                })
+                .thenCompose(future -> future);
+    }
+
+    private static RateSnapshot parse(String base, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status != 200) {
+            throw new CompletionException(new RateProviderException(
+                    "Rate provider returned HTTP " + status + " for " + base, status == 429 || status >= 500));
+        }
+        try {
+            JSONObject json = new JSONObject(response.body());
+            if (!json.has("rates")) {
+                throw new CompletionException(new RateProviderException(
+                        "API response format unexpected. Response: " + json, false));
+            }
+            return RateSnapshot.fromJson(base, json.getJSONObject("rates"), Instant.now());
+        } catch (JSONException e) {
+            throw new CompletionException(new RateProviderException("Malformed rate provider response", e, false));
+        }
+    }
+
+    private static RateProviderException toFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RateProviderException failure) {
+            return failure;
+        }
+        return new RateProviderException("Rate provider call failed: " + cause, cause, cause instanceof IOException);
+    }
+
+    /**
+     * Full jitter: a uniform delay between zero and the exponential backoff cap.
+     */
+    private long backoffMillis(int attempt) {
+        long cap = settings.retryBackoff().toMillis() << Math.min(attempt - 1, 10);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    public record Settings(Duration connectTimeout, Duration requestTimeout, int maxAttempts, Duration retryBackoff,
+                           int failureThreshold, Duration openDuration) {
+
+        public static Settings fromProperties(Properties properties) {
+            return new Settings(
+                    Duration.ofMillis(Long.parseLong(properties.getProperty("expenses.rates.connect-timeout-ms", "2000"))),
+                    Duration.ofMillis(Long.parseLong(properties.getProperty("expenses.rates.request-timeout-ms", "5000"))),
+                    Integer.parseInt(properties.getProperty("expenses.rates.max-attempts", "3")),
+                    Duration.ofMillis(Long.parseLong(properties.getProperty("expenses.rates.retry-backoff-ms", "200"))),
+                    Integer.parseInt(properties.getProperty("expenses.rates.circuit.failure-threshold", "5")),
+                    Duration.ofSeconds(Long.parseLong(properties.getProperty("expenses.rates.circuit.open-seconds", "30")))
+            );
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.project;
+
+/**
+ * A failed call to the rate provider. {@link #isRetryable()} is true for failures that
+ * another attempt may not repeat: I/O errors, timeouts, 429 and 5xx responses.
+ */
+public class RateProviderException extends Exception {
+
+    private final boolean retryable;
+
+    public RateProviderException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public RateProviderException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
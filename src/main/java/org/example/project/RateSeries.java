@@ -0,0 +1,131 @@
+package org.example.project;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Daily rates for consecutive days, stored as the epoch day of the first value and a
+ * contiguous {@code double[]}. Value {@code i} is the rate on {@code startEpochDay + i}.
+ */
+public final class RateSeries {
+
+    private static final RateSeries EMPTY = new RateSeries(0, new double[0], 0, 0);
+
+    private final long startEpochDay;
+    private final double[] values;
+    private final int offset;
+    private final int length;
+
+    private RateSeries(long startEpochDay, double[] values, int offset, int length) {
+        this.startEpochDay = startEpochDay;
+        this.values = values;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public static RateSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Wraps the first {@code length} entries of {@code values} without copying; the
+     * caller must not modify the array afterwards.
+     */
+    public static RateSeries wrap(long startEpochDay, double[] values, int length) {
+        if (length < 0 || length > values.length) {
+            throw new IllegalArgumentException("length " + length + " out of range for " + values.length + " values");
+        }
+        return length == 0 ? EMPTY : new RateSeries(startEpochDay, values, 0, length);
+    }
+
+    public static RateSeries of(LocalDate start, double... values) {
+        return wrap(start.toEpochDay(), values.clone(), values.length);
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public long startEpochDay() {
+        return startEpochDay;
+    }
+
+    public long endEpochDay() {
+        return startEpochDay + length - 1;
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return values[offset + index];
+    }
+
+    public double last() {
+        return get(length - 1);
+    }
+
+    /**
+     * The {@code length} days starting at {@code from}, sharing this series' array.
+     */
+    public RateSeries slice(int from, int length) {
+        if (from < 0 || length < 0 || from + length > this.length) {
+            throw new IndexOutOfBoundsException("slice [" + from + ", " + (from + length) + ") of " + this.length);
+        }
+        return length == 0 ? EMPTY : new RateSeries(startEpochDay + from, values, offset + from, length);
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(startEpochDay + index);
+    }
+
+    /**
+     * Copies the values into {@code target} starting at {@code offset}.
+     */
+    public void copyTo(double[] target, int offset) {
+        System.arraycopy(values, this.offset, target, offset, length);
+    }
+
+    /**
+     * Date-keyed view for JSON responses; allocates one boxed entry per day.
+     */
+    public Map<LocalDate, Double> toMap() {
+        Map<LocalDate, Double> map = new LinkedHashMap<>();
+        for (int i = 0; i < length; i++) {
+            map.put(dateAt(i), values[offset + i]);
+        }
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RateSeries series) || series.length != length
+                || (length > 0 && series.startEpochDay != startEpochDay)) {
+            return false;
+        }
+        return Arrays.equals(values, offset, offset + length, series.values, series.offset, series.offset + length);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(startEpochDay);
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + Double.hashCode(values[offset + i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "RateSeries[" + (length == 0 ? "empty" : dateAt(0) + " .. " + dateAt(length - 1) + ", " + length + " days") + "]";
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.project;
+
+import org.json.JSONObject;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable table of every rate returned for one base currency. Codes are kept sorted
+ * next to a parallel {@code double[]} so a lookup is a binary search with no boxing,
+ * and any cross rate is derived from two entries instead of another API call.
+ */
+public final class RateSnapshot {
+
+    private final String base;
+    private final Instant fetchedAt;
+    private final String[] codes;
+    private final double[] rates;
+    private volatile CrossRateMatrix crossRates;
+
+    private RateSnapshot(String base, Instant fetchedAt, String[] codes, double[] rates) {
+        this.base = base;
+        this.fetchedAt = fetchedAt;
+        this.codes = codes;
+        this.rates = rates;
+    }
+
+    public static RateSnapshot fromJson(String base, JSONObject rates, Instant fetchedAt) {
+        String[] codes = rates.keySet().toArray(new String[0]);
+        Arrays.sort(codes);
+
+        double[] values = new double[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            values[i] = rates.getDouble(codes[i]);
+        }
+        return new RateSnapshot(base, fetchedAt, codes, values);
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean contains(String currency) {
+        return indexOf(currency) >= 0;
+    }
+
+    public List<String> getCurrencies() {
+        return List.of(codes);
+    }
+
+    /**
+     * Units of {@code currency} per one unit of the base currency.
+     */
+    public double rate(String currency) {
+        if (base.equals(currency)) {
+            return 1.0;
+        }
+        int index = indexOf(currency);
+        if (index < 0) {
+            throw new IllegalArgumentException("Currency '" + currency + "' not found in rate snapshot for " + base);
+        }
+        return rates[index];
+    }
+
+    /**
+     * Units of {@code toCurrency} per one unit of {@code fromCurrency}.
+     */
+    public double crossRate(String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return 1.0;
+        }
+        return getCrossRates().rate(fromCurrency, toCurrency);
+    }
+
+    /**
+     * The full cross-rate matrix, built on first use and shared by every later lookup
+     * on this snapshot.
+     */
+    public CrossRateMatrix getCrossRates() {
+        CrossRateMatrix matrix = crossRates;
+        if (matrix == null) {
+            matrix = CrossRateMatrix.of(this);
+            crossRates = matrix;
+        }
+        return matrix;
+    }
+
+    private int indexOf(String currency) {
+        return Arrays.binarySearch(codes, currency);
+    }
+}
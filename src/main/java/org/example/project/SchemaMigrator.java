@@ -0,0 +1,145 @@
+package org.example.project;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Applies the numbered schema migrations that have not run yet, each in its own
+ * transaction, and records them in {@code schema_version}.
+ */
+public class SchemaMigrator {
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create categories and expenses tables", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS categories (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT UNIQUE NOT NULL
+                    );
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS expenses (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        category_id INTEGER NOT NULL,
+                        amount REAL NOT NULL,
+                        transaction_date TEXT NOT NULL,
+                        expense_date TEXT NOT NULL,
+                        currency TEXT NOT NULL,
+                        FOREIGN KEY (category_id) REFERENCES categories (id)
+                    );
+                    """
+            )),
+            new Migration(2, "Index expenses by category, expense date and transaction date", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_category_amount ON expenses (category_id, amount);",
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_expense_date ON expenses (expense_date);",
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_transaction_date ON expenses (transaction_date);",
+                    "ANALYZE;"
+            )),
+            new Migration(3, "Materialize per-category totals", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS category_totals (
+                        category_id INTEGER PRIMARY KEY,
+                        total REAL NOT NULL DEFAULT 0,
+                        expense_count INTEGER NOT NULL DEFAULT 0,
+                        min_amount REAL,
+                        max_amount REAL,
+                        FOREIGN KEY (category_id) REFERENCES categories (id)
+                    );
+                    """,
+                    """
+                    INSERT OR REPLACE INTO category_totals (category_id, total, expense_count, min_amount, max_amount)
+                    SELECT c.id, COALESCE(SUM(e.amount), 0), COUNT(e.id), MIN(e.amount), MAX(e.amount)
+                    FROM categories c
+                    LEFT JOIN expenses e ON e.category_id = c.id
+                    GROUP BY c.id;
+                    """
+            )),
+            new Migration(4, "Record exchange rate history", List.of(
+                    """
+                    CREATE TABLE IF NOT EXISTS rate_history (
+                        currency TEXT NOT NULL,
+                        observed_at INTEGER NOT NULL,
+                        rate REAL NOT NULL,
+                        PRIMARY KEY (currency, observed_at)
+                    ) WITHOUT ROWID;
+                    """
+            )),
+            new Migration(5, "Index expenses by category in id order for keyset pages", List.of(
+                    "CREATE INDEX IF NOT EXISTS idx_expenses_category_id ON expenses (category_id, id);",
+                    "ANALYZE;"
+            ))
+    );
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator() {
+        this(MIGRATIONS);
+    }
+
+    public SchemaMigrator(List<Migration> migrations) {
+        this.migrations = migrations;
+    }
+
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        applied_at TEXT NOT NULL
+                    );
+                    """);
+        }
+
+        int currentVersion = currentVersion(connection);
+        for (Migration migration : migrations) {
+            if (migration.version() > currentVersion) {
+                apply(connection, migration);
+                currentVersion = migration.version();
+            }
+        }
+        return currentVersion;
+    }
+
+    public int currentVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version;")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : migration.statements()) {
+                    statement.execute(sql);
+                }
+            }
+
+            try (PreparedStatement record = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?);")) {
+                record.setInt(1, migration.version());
+                record.setString(2, migration.description());
+                record.setString(3, Instant.now().toString());
+                record.executeUpdate();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Schema migration " + migration.version() + " failed: " + e.getMessage(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    public record Migration(int version, String description, List<String> statements) {
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.project;
+
+/**
+ * Least-squares line over the most recent {@code capacity} daily values, with x as
+ * the position in the window (0 for the oldest value). The running sums Σx, Σy, Σxy
+ * and Σx² are adjusted on every append, eviction and correction, so each update and
+ * each fit is O(1). When the oldest value is evicted every remaining x drops by one,
+ * which shifts the sums in closed form instead of re-summing the window.
+ */
+public class SlidingWindowRegression {
+
+    private static final int RESYNC_INTERVAL = 1024;
+
+    private final double[] window;
+    private int head;
+    private int size;
+    private int evictionsSinceResync;
+
+    private double sumX;
+    private double sumY;
+    private double sumXY;
+    private double sumXX;
+
+    public SlidingWindowRegression(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be positive: " + capacity);
+        }
+        this.window = new double[capacity];
+    }
+
+    public static SlidingWindowRegression of(RateSeries series, int capacity) {
+        SlidingWindowRegression regression = new SlidingWindowRegression(capacity);
+        for (int i = Math.max(0, series.size() - capacity); i < series.size(); i++) {
+            regression.add(series.get(i));
+        }
+        return regression;
+    }
+
+    public int capacity() {
+        return window.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the next day's value, evicting the oldest one if the window is full.
+     */
+    public void add(double y) {
+        if (size == window.length) {
+            evictOldest();
+        }
+
+        double x = size;
+        window[(head + size) % window.length] = y;
+        size++;
+
+        sumX += x;
+        sumXX += x * x;
+        sumY += y;
+        sumXY += x * y;
+    }
+
+    /**
+     * Replaces the newest value, e.g. when a later observation for the same day arrives.
+     */
+    public void updateLast(double y) {
+        if (size == 0) {
+            throw new IllegalStateException("Window is empty");
+        }
+        int index = (head + size - 1) % window.length;
+        double delta = y - window[index];
+        window[index] = y;
+
+        sumY += delta;
+        sumXY += (size - 1) * delta;
+    }
+
+    public double last() {
+        if (size == 0) {
+            throw new IllegalStateException("Window is empty");
+        }
+        return window[(head + size - 1) % window.length];
+    }
+
+    public double slope() {
+        double denominator = size * sumXX - sumX * sumX;
+        return denominator == 0 ? 0 : (size * sumXY - sumX * sumY) / denominator;
+    }
+
+    public double intercept() {
+        return size == 0 ? 0 : (sumY - slope() * sumX) / size;
+    }
+
+    /**
+     * The fitted value {@code daysAhead} days after the newest value in the window.
+     */
+    public double predict(int daysAhead) {
+        return fit().predict(daysAhead);
+    }
+
+    /**
+     * The current intercept, slope and size as one immutable value, so a caller that
+     * shares this regression can read a consistent fit under its own lock and use it
+     * after releasing the lock.
+     */
+    public Fit fit() {
+        double slope = slope();
+        double intercept = size == 0 ? 0 : (sumY - slope * sumX) / size;
+        return new Fit(intercept, slope, size);
+    }
+
+    /**
+     * A fitted line with x as the position in a window of {@code size} values.
+     */
+    public record Fit(double intercept, double slope, int size) {
+
+        public double predict(int daysAhead) {
+            return intercept + slope * (size - 1 + daysAhead);
+        }
+    }
+
+    private void evictOldest() {
+        double oldest = window[head];
+        head = (head + 1) % window.length;
+        size--;
+
+        // The evicted value sat at x = 0, so it only contributed to Σy.
+        sumY -= oldest;
+
+        // Shift the remaining x from 1..size down to 0..size-1.
+        sumXX -= 2 * sumX - size;
+        sumX -= size;
+        sumXY -= sumY;
+
+        if (++evictionsSinceResync >= RESYNC_INTERVAL) {
+            resync();
+        }
+    }
+
+    /**
+     * Recomputes the sums from the window to drop rounding error accumulated by the
+     * incremental updates; amortized over {@link #RESYNC_INTERVAL} evictions.
+     */
+    private void resync() {
+        sumX = 0;
+        sumY = 0;
+        sumXY = 0;
+        sumXX = 0;
+        for (int i = 0; i < size; i++) {
+            double y = window[(head + i) % window.length];
+            sumX += i;
+            sumXX += (double) i * i;
+            sumY += y;
+            sumXY += i * y;
+        }
+        evictionsSinceResync = 0;
+    }
+}
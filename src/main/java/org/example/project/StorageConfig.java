@@ -0,0 +1,90 @@
+package org.example.project;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * SQLite storage settings read from {@code application.properties} (overridable with
+ * {@code -D} system properties) so the REST API and the JavaFX client share one setup.
+ */
+public record StorageConfig(
+        String url,
+        int readerConnections,
+        long acquireTimeoutMillis,
+        int maxPendingWriters,
+        String journalMode,
+        String synchronous,
+        long mmapSize,
+        long cacheSize,
+        String tempStore,
+        long busyTimeoutMillis,
+        long checkpointIntervalSeconds
+) {
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_LEVELS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    public StorageConfig {
+        journalMode = requireOneOf("journal mode", journalMode, JOURNAL_MODES);
+        synchronous = requireOneOf("synchronous level", synchronous, SYNCHRONOUS_LEVELS);
+        tempStore = requireOneOf("temp store", tempStore, TEMP_STORES);
+        if (readerConnections < 1) {
+            throw new IllegalArgumentException("At least one reader connection is required");
+        }
+        if (maxPendingWriters < 1) {
+            throw new IllegalArgumentException("At least one pending writer must be allowed");
+        }
+    }
+
+    public static StorageConfig defaults() {
+        return fromProperties(new Properties());
+    }
+
+    public static StorageConfig load() {
+        return fromProperties(AppProperties.load());
+    }
+
+    public static StorageConfig fromProperties(Properties properties) {
+        return new StorageConfig(
+                properties.getProperty("spring.datasource.url", "jdbc:sqlite:expenses.db"),
+                Integer.parseInt(properties.getProperty("expenses.storage.pool.readers", "4")),
+                Long.parseLong(properties.getProperty("expenses.storage.pool.acquire-timeout-ms", "30000")),
+                Integer.parseInt(properties.getProperty("expenses.storage.pool.max-pending-writers", "64")),
+                properties.getProperty("expenses.storage.journal-mode", "WAL"),
+                properties.getProperty("expenses.storage.synchronous", "NORMAL"),
+                Long.parseLong(properties.getProperty("expenses.storage.mmap-size", "268435456")),
+                Long.parseLong(properties.getProperty("expenses.storage.cache-size", "-16000")),
+                properties.getProperty("expenses.storage.temp-store", "MEMORY"),
+                Long.parseLong(properties.getProperty("expenses.storage.busy-timeout-ms", "5000")),
+                Long.parseLong(properties.getProperty("expenses.storage.checkpoint-interval-seconds", "60"))
+        );
+    }
+
+    public boolean isWal() {
+        return "WAL".equals(journalMode);
+    }
+
+    public void applyPragmas(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            statement.execute("PRAGMA journal_mode = " + journalMode);
+            statement.execute("PRAGMA synchronous = " + synchronous);
+            statement.execute("PRAGMA mmap_size = " + mmapSize);
+            statement.execute("PRAGMA cache_size = " + cacheSize);
+            statement.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    private static String requireOneOf(String name, String value, Set<String> allowed) {
+        String normalized = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+        if (!allowed.contains(normalized)) {
+            throw new IllegalArgumentException("Unsupported " + name + ": " + value);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.project;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache with a time-to-live. Concurrent misses for the same key share a
+ * single load, and entries past their TTL but within the stale window are served
+ * immediately while one background refresh runs. At most one load per key is in
+ * flight at a time, and a load that finds the entry already refreshed by the flight
+ * before it returns that entry instead of calling the loader again.
+ */
+public class TtlCache<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    private final Loader<K, V> loader;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ttl-cache-refresh-", 1).factory());
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalescedLoads = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+
+    public TtlCache(Loader<K, V> loader, Duration ttl, Duration maxStale) {
+        this(loader, ttl, maxStale, System::nanoTime);
+    }
+
+    TtlCache(Loader<K, V> loader, Duration ttl, Duration maxStale, LongSupplier nanoTime) {
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public V get(K key) throws Exception {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = nanoTime.getAsLong() - entry.loadedAtNanos;
+            if (age < ttlNanos) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (age < ttlNanos + maxStaleNanos) {
+                staleHits.incrementAndGet();
+                refreshAsync(key);
+                return entry.value;
+            }
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> flight = inFlight.computeIfAbsent(key, k -> created);
+        if (flight != created) {
+            coalescedLoads.incrementAndGet();
+            return await(flight);
+        }
+        return load(key, flight);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, nanoTime.getAsLong()));
+    }
+
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public Metrics getMetrics() {
+        return new Metrics(
+                hits.get(),
+                staleHits.get(),
+                misses.get(),
+                coalescedLoads.get(),
+                loads.get(),
+                loadFailures.get(),
+                entries.size()
+        );
+    }
+
+    /**
+     * Runs the load for {@code flight}, which the caller has just registered in
+     * {@link #inFlight}. The entry is re-checked first: a flight that completed between
+     * the caller's freshness check and the registration has already stored a fresh value.
+     */
+    private V load(K key, CompletableFuture<V> flight) throws Exception {
+        try {
+            Entry<V> entry = entries.get(key);
+            V value;
+            if (entry != null && nanoTime.getAsLong() - entry.loadedAtNanos < ttlNanos) {
+                coalescedLoads.incrementAndGet();
+                value = entry.value;
+            } else {
+                value = loader.load(key);
+                loads.incrementAndGet();
+                put(key, value);
+            }
+            flight.complete(value);
+            return value;
+        } catch (Exception e) {
+            loadFailures.incrementAndGet();
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void refreshAsync(K key) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        if (inFlight.computeIfAbsent(key, k -> created) != created) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                load(key, created);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception exception ? exception : new RuntimeException(cause);
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAtNanos) {
+    }
+
+    public record Metrics(long hits, long staleHits, long misses, long coalescedLoads,
+                          long loads, long loadFailures, int entries) {
+    }
+}
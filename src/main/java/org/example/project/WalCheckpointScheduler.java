@@ -0,0 +1,53 @@
+package org.example.project;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically folds the write-ahead log back into the main database file so the
+ * WAL does not grow without bound while readers keep old snapshots open.
+ */
+public class WalCheckpointScheduler implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final ScheduledExecutorService executor;
+
+    public WalCheckpointScheduler(ConnectionPool pool) {
+        this.pool = pool;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqlite-wal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalSeconds) {
+        executor.scheduleWithFixedDelay(this::checkpointQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public boolean checkpoint() throws SQLException {
+        try (ConnectionPool.Lease lease = pool.writer();
+             Statement statement = lease.connection().createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA wal_checkpoint(PASSIVE)")) {
+
+            return resultSet.next() && resultSet.getInt(1) == 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -5,9 +5,12 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.project.CurrencyPredictor;
 import org.example.project.dto.ApiDTOs.*;
 import org.example.project.service.CurrencyPredictionService;
+import org.example.project.service.ForecastSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,28 +18,57 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/predictions")
 @Tag(name = "Currency Predictions (AI)", description = "AI-powered currency exchange rate predictions using linear regression")
 public class CurrencyPredictionController {
 
+    private static final String FORECAST_VERSION_HEADER = "X-Forecast-Version";
+
     @Autowired
     private CurrencyPredictionService predictionService;
 
     @Operation(
             summary = "Get all currency predictions", 
-            description = "Get AI-powered predictions for all supported currencies using linear regression on 30 days of historical data"
+            description = "Get AI-powered predictions for all supported currencies using linear regression on 30 days of historical data. Served from the periodically refreshed forecast snapshot; the Age and X-Forecast-Version headers identify it, and its ETag answers If-None-Match with 304 until the next refresh. Passing model, window or horizon computes a live forecast instead"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Predictions generated successfully"),
+            @ApiResponse(responseCode = "304", description = "Snapshot unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Error generating predictions")
     })
     @GetMapping
-    public ResponseEntity<?> getAllPredictions() {
+    public ResponseEntity<?> getAllPredictions(
+            @Parameter(description = "Forecast model (e.g., linear, holt); defaults to each currency's configured model")
+            @RequestParam(required = false) String model,
+            @Parameter(description = "Days of history to fit on (2-730, default 30)")
+            @RequestParam(required = false) Integer window,
+            @Parameter(description = "Days ahead to forecast (1-365, default 7)")
+            @RequestParam(required = false) Integer horizon,
+            @Parameter(description = "ETag from a previous response")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            List<CurrencyPredictionResponse> predictions = predictionService.getAllPredictions();
-            return ResponseEntity.ok(predictions);
+            if (!predictionService.isAvailableModel(model)) {
+                return invalidModel(model);
+            }
+            if (!predictionService.isValidRange(window, horizon)) {
+                return invalidRange(window, horizon);
+            }
+            if (model != null || window != null || horizon != null) {
+                return ResponseEntity.ok(predictionService.getAllPredictions(model, window, horizon));
+            }
+
+            ForecastSnapshot snapshot = predictionService.getSnapshot();
+            String etag = HttpCaching.etag(snapshot.getETagVersion());
+            if (HttpCaching.matches(ifNoneMatch, etag)) {
+                return HttpCaching.notModified(etag);
+            }
+            return HttpCaching.ok(etag)
+                    .header(HttpHeaders.AGE, String.valueOf(snapshot.getAge().toSeconds()))
+                    .header(FORECAST_VERSION_HEADER, String.valueOf(snapshot.getVersion()))
+                    .body(snapshot.getPredictions());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("PREDICTION_ERROR", "Error generating predictions: " + e.getMessage()));
@@ -49,20 +81,32 @@ public class CurrencyPredictionController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Prediction generated successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid currency code"),
+            @ApiResponse(responseCode = "400", description = "Invalid currency code, model, window or horizon"),
             @ApiResponse(responseCode = "500", description = "Error generating prediction")
     })
     @GetMapping("/{currency}")
     public ResponseEntity<?> getPredictionForCurrency(
             @Parameter(description = "Currency code (e.g., EUR, GBP, JPY)") 
-            @PathVariable String currency) {
+            @PathVariable String currency,
+            @Parameter(description = "Forecast model (e.g., linear, holt); defaults to the currency's configured model")
+            @RequestParam(required = false) String model,
+            @Parameter(description = "Days of history to fit on (2-730, default 30)")
+            @RequestParam(required = false) Integer window,
+            @Parameter(description = "Days ahead to forecast (1-365, default 7)")
+            @RequestParam(required = false) Integer horizon) {
         try {
             if (!predictionService.getSupportedCurrencies().contains(currency)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ErrorResponse("INVALID_CURRENCY", "Currency not supported: " + currency));
             }
+            if (!predictionService.isAvailableModel(model)) {
+                return invalidModel(model);
+            }
+            if (!predictionService.isValidRange(window, horizon)) {
+                return invalidRange(window, horizon);
+            }
 
-            CurrencyPredictionResponse prediction = predictionService.getPredictionForCurrency(currency);
+            CurrencyPredictionResponse prediction = predictionService.getPredictionForCurrency(currency, model, window, horizon);
             return ResponseEntity.ok(prediction);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -72,24 +116,29 @@ public class CurrencyPredictionController {
 
     @Operation(
             summary = "Get historical rates", 
-            description = "Get 30 days of historical exchange rates for a currency"
+            description = "Get the last 30 days (or window days) of historical exchange rates for a currency"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Historical data retrieved successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid currency code"),
+            @ApiResponse(responseCode = "400", description = "Invalid currency code, model, window or horizon"),
             @ApiResponse(responseCode = "500", description = "Error retrieving data")
     })
     @GetMapping("/{currency}/historical")
     public ResponseEntity<?> getHistoricalRates(
             @Parameter(description = "Currency code (e.g., EUR, GBP, JPY)") 
-            @PathVariable String currency) {
+            @PathVariable String currency,
+            @Parameter(description = "Days of history to return (2-730, default 30)")
+            @RequestParam(required = false) Integer window) {
         try {
             if (!predictionService.getSupportedCurrencies().contains(currency)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ErrorResponse("INVALID_CURRENCY", "Currency not supported: " + currency));
             }
+            if (!predictionService.isValidRange(window, null)) {
+                return invalidRange(window, null);
+            }
 
-            Map<LocalDate, Double> historicalRates = predictionService.getHistoricalRates(currency);
+            Map<LocalDate, Double> historicalRates = predictionService.getHistoricalRates(currency, window).toMap();
             return ResponseEntity.ok(historicalRates);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -99,24 +148,36 @@ public class CurrencyPredictionController {
 
     @Operation(
             summary = "Get future predictions", 
-            description = "Get 7-day future predictions for a currency"
+            description = "Get 7-day (or horizon-day) future predictions for a currency"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Future predictions generated successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid currency code"),
+            @ApiResponse(responseCode = "400", description = "Invalid currency code, model, window or horizon"),
             @ApiResponse(responseCode = "500", description = "Error generating predictions")
     })
     @GetMapping("/{currency}/future")
     public ResponseEntity<?> getFuturePredictions(
             @Parameter(description = "Currency code (e.g., EUR, GBP, JPY)") 
-            @PathVariable String currency) {
+            @PathVariable String currency,
+            @Parameter(description = "Forecast model (e.g., linear, holt); defaults to the currency's configured model")
+            @RequestParam(required = false) String model,
+            @Parameter(description = "Days of history to fit on (2-730, default 30)")
+            @RequestParam(required = false) Integer window,
+            @Parameter(description = "Days ahead to forecast (1-365, default 7)")
+            @RequestParam(required = false) Integer horizon) {
         try {
             if (!predictionService.getSupportedCurrencies().contains(currency)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ErrorResponse("INVALID_CURRENCY", "Currency not supported: " + currency));
             }
+            if (!predictionService.isAvailableModel(model)) {
+                return invalidModel(model);
+            }
+            if (!predictionService.isValidRange(window, horizon)) {
+                return invalidRange(window, horizon);
+            }
 
-            Map<LocalDate, Double> futurePredictions = predictionService.getFuturePredictions(currency);
+            Map<LocalDate, Double> futurePredictions = predictionService.getFuturePredictions(currency, model, window, horizon).toMap();
             return ResponseEntity.ok(futurePredictions);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -138,24 +199,36 @@ public class CurrencyPredictionController {
 
     @Operation(
             summary = "Get change percentage", 
-            description = "Get the predicted percentage change for a currency over the next 7 days"
+            description = "Get the predicted percentage change for a currency over the next 7 days (or horizon days)"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Change percentage calculated successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid currency code"),
+            @ApiResponse(responseCode = "400", description = "Invalid currency code, model, window or horizon"),
             @ApiResponse(responseCode = "500", description = "Error calculating change")
     })
     @GetMapping("/{currency}/change")
     public ResponseEntity<?> getChangePercentage(
             @Parameter(description = "Currency code (e.g., EUR, GBP, JPY)") 
-            @PathVariable String currency) {
+            @PathVariable String currency,
+            @Parameter(description = "Forecast model (e.g., linear, holt); defaults to the currency's configured model")
+            @RequestParam(required = false) String model,
+            @Parameter(description = "Days of history to fit on (2-730, default 30)")
+            @RequestParam(required = false) Integer window,
+            @Parameter(description = "Days ahead to forecast (1-365, default 7)")
+            @RequestParam(required = false) Integer horizon) {
         try {
             if (!predictionService.getSupportedCurrencies().contains(currency)) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new ErrorResponse("INVALID_CURRENCY", "Currency not supported: " + currency));
             }
+            if (!predictionService.isAvailableModel(model)) {
+                return invalidModel(model);
+            }
+            if (!predictionService.isValidRange(window, horizon)) {
+                return invalidRange(window, horizon);
+            }
 
-            double changePercentage = predictionService.getPredictedChangePercentage(currency);
+            double changePercentage = predictionService.getPredictedChangePercentage(currency, model, window, horizon);
             return ResponseEntity.ok(new ChangeResponse(currency, changePercentage));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -163,6 +236,134 @@ public class CurrencyPredictionController {
         }
     }
 
+    @Operation(
+            summary = "Add a supported currency",
+            description = "Add a currency from the upstream rate table to the currencies predicted in every snapshot"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Currency added"),
+            @ApiResponse(responseCode = "200", description = "Currency was already supported"),
+            @ApiResponse(responseCode = "400", description = "Currency not in the upstream rate table"),
+            @ApiResponse(responseCode = "500", description = "Error fetching the rate table")
+    })
+    @PostMapping("/supported/{currency}")
+    public ResponseEntity<?> addSupportedCurrency(
+            @Parameter(description = "Currency code (e.g., CHF, CAD)")
+            @PathVariable String currency) {
+        try {
+            boolean added = predictionService.addSupportedCurrency(currency);
+            return ResponseEntity.status(added ? HttpStatus.CREATED : HttpStatus.OK)
+                    .body(predictionService.getSupportedCurrencies());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_CURRENCY", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("DATA_ERROR", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Get prediction for a currency pair",
+            description = "Predict units of quote per unit of base for any two currencies in the rate table, derived from their recorded USD rates without further API calls"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Prediction generated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid currency pair, model, window or horizon"),
+            @ApiResponse(responseCode = "500", description = "Error generating prediction")
+    })
+    @GetMapping("/pair/{base}/{quote}")
+    public ResponseEntity<?> getPairPrediction(
+            @Parameter(description = "Base currency code (e.g., EUR)")
+            @PathVariable String base,
+            @Parameter(description = "Quote currency code (e.g., JPY)")
+            @PathVariable String quote,
+            @Parameter(description = "Forecast model (e.g., linear, holt); defaults to the configured model")
+            @RequestParam(required = false) String model,
+            @Parameter(description = "Days of history to fit on (2-730, default 30)")
+            @RequestParam(required = false) Integer window,
+            @Parameter(description = "Days ahead to forecast (1-365, default 7)")
+            @RequestParam(required = false) Integer horizon) {
+        try {
+            for (String currency : List.of(base, quote)) {
+                if (!predictionService.isKnownCurrency(currency)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                            .body(new ErrorResponse("INVALID_CURRENCY", "Currency not supported: " + currency));
+                }
+            }
+            if (!predictionService.isAvailableModel(model)) {
+                return invalidModel(model);
+            }
+            if (!predictionService.isValidRange(window, horizon)) {
+                return invalidRange(window, horizon);
+            }
+
+            return ResponseEntity.ok(predictionService.getPairPrediction(base, quote, model, window, horizon));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_PAIR", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("PREDICTION_ERROR", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Get forecast models",
+            description = "Get the names accepted by the model parameter"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List retrieved successfully")
+    })
+    @GetMapping("/models")
+    public ResponseEntity<List<String>> getAvailableModels() {
+        return ResponseEntity.ok(predictionService.getAvailableModels());
+    }
+
+    @Operation(
+            summary = "Backtest forecast models",
+            description = "Replay recorded rate history with rolling-origin evaluation for every supported currency and report MAE, MAPE and nanoseconds per forecast for each model. Runs off the request thread"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Backtest completed"),
+            @ApiResponse(responseCode = "400", description = "Invalid model, window, horizon or days"),
+            @ApiResponse(responseCode = "500", description = "Error running backtest")
+    })
+    @GetMapping("/backtest")
+    public CompletableFuture<ResponseEntity<?>> backtest(
+            @Parameter(description = "Comma-separated model names; defaults to all models")
+            @RequestParam(required = false) List<String> models,
+            @Parameter(description = "Days of history each forecast is fitted on (2-730)")
+            @RequestParam(defaultValue = "30") int window,
+            @Parameter(description = "Days ahead each forecast is scored on (1-365)")
+            @RequestParam(defaultValue = "7") int horizon,
+            @Parameter(description = "Days of recorded history to replay (window + horizon to 1095)")
+            @RequestParam(defaultValue = "365") int days) {
+        List<String> selected = models == null || models.isEmpty() ? predictionService.getAvailableModels() : models;
+        try {
+            return predictionService.backtest(selected, window, horizon, days)
+                    .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                    .exceptionally(e -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new ErrorResponse("BACKTEST_ERROR", e.getMessage())));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_BACKTEST", e.getMessage())));
+        }
+    }
+
+    private ResponseEntity<?> invalidModel(String model) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("INVALID_MODEL", "Unknown forecast model: " + model
+                        + " (available: " + predictionService.getAvailableModels() + ")"));
+    }
+
+    private ResponseEntity<?> invalidRange(Integer window, Integer horizon) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("INVALID_RANGE", "Expected window between 2 and "
+                        + CurrencyPredictor.MAX_WINDOW_DAYS + " and horizon between 1 and "
+                        + CurrencyPredictor.MAX_HORIZON_DAYS + " (got window=" + window + ", horizon=" + horizon + ")"));
+    }
+
     private static class ChangeResponse {
         private String currency;
         private double changePercentage;
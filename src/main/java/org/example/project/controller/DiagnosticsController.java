@@ -0,0 +1,140 @@
+package org.example.project.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.project.CircuitBreaker;
+import org.example.project.ConnectionPool;
+import org.example.project.TtlCache;
+import org.example.project.dto.ApiDTOs.ErrorResponse;
+import org.example.project.service.ExpenseService;
+import org.example.project.service.PinnedThreadMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+@Tag(name = "Diagnostics", description = "Runtime metrics for the storage and prediction layers")
+public class DiagnosticsController {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private PinnedThreadMonitor pinnedThreadMonitor;
+
+    @Operation(summary = "Get connection pool metrics", description = "Active, idle and wait-time statistics for the SQLite connection pool")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully")
+    })
+    @GetMapping("/pool")
+    public ResponseEntity<ConnectionPool.Metrics> getPoolMetrics() {
+        return ResponseEntity.ok(expenseService.getPoolMetrics());
+    }
+
+    @Operation(summary = "Get exchange rate cache metrics", description = "Hit, stale-hit, miss and load statistics for the cached exchange rates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metrics retrieved successfully")
+    })
+    @GetMapping("/rates")
+    public ResponseEntity<TtlCache.Metrics> getRateCacheMetrics() {
+        return ResponseEntity.ok(expenseService.getRateCacheMetrics());
+    }
+
+    @Operation(summary = "Get rate provider circuit state", description = "CLOSED, OPEN or HALF_OPEN; while OPEN the last known exchange rates are served without calling the provider")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "State retrieved successfully")
+    })
+    @GetMapping("/rates/circuit")
+    public ResponseEntity<CircuitBreaker.State> getRateCircuitState() {
+        return ResponseEntity.ok(expenseService.getRateCircuitState());
+    }
+
+    @Operation(summary = "Get virtual thread diagnostics", description = "Whether requests run on virtual threads, and JFR jdk.VirtualThreadPinned events aggregated by call site")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Diagnostics retrieved successfully")
+    })
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<VirtualThreadStatus> getVirtualThreadStatus() {
+        return ResponseEntity.ok(new VirtualThreadStatus(Thread.currentThread().isVirtual(), pinnedThreadMonitor.getReport()));
+    }
+
+    @Operation(summary = "Verify category totals", description = "Compare the materialized category_totals table against a full aggregate of the expenses table")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Verification completed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/category-totals/verify")
+    public ResponseEntity<?> verifyCategoryTotals() {
+        try {
+            List<String> mismatches = expenseService.verifyCategoryTotals();
+            return ResponseEntity.ok(new CategoryTotalsStatus(mismatches.isEmpty(), mismatches, 0));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Rebuild category totals", description = "Recompute the materialized category_totals table from the expenses table")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Category totals rebuilt"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/category-totals/rebuild")
+    public ResponseEntity<?> rebuildCategoryTotals() {
+        try {
+            int rebuilt = expenseService.rebuildCategoryTotals();
+            return ResponseEntity.ok(new CategoryTotalsStatus(true, List.of(), rebuilt));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
+        }
+    }
+
+    private static class VirtualThreadStatus {
+        private boolean requestOnVirtualThread;
+        private PinnedThreadMonitor.Report pinned;
+
+        public VirtualThreadStatus(boolean requestOnVirtualThread, PinnedThreadMonitor.Report pinned) {
+            this.requestOnVirtualThread = requestOnVirtualThread;
+            this.pinned = pinned;
+        }
+
+        public boolean isRequestOnVirtualThread() {
+            return requestOnVirtualThread;
+        }
+
+        public PinnedThreadMonitor.Report getPinned() {
+            return pinned;
+        }
+    }
+
+    private static class CategoryTotalsStatus {
+        private boolean consistent;
+        private List<String> mismatchedCategories;
+        private int rebuiltCategories;
+
+        public CategoryTotalsStatus(boolean consistent, List<String> mismatchedCategories, int rebuiltCategories) {
+            this.consistent = consistent;
+            this.mismatchedCategories = mismatchedCategories;
+            this.rebuiltCategories = rebuiltCategories;
+        }
+
+        public boolean isConsistent() {
+            return consistent;
+        }
+
+        public List<String> getMismatchedCategories() {
+            return mismatchedCategories;
+        }
+
+        public int getRebuiltCategories() {
+            return rebuiltCategories;
+        }
+    }
+}
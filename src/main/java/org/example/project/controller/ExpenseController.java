@@ -5,14 +5,26 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.project.ExpensePage;
+import org.example.project.ExpenseQuery;
 import org.example.project.dto.ApiDTOs.*;
+import org.example.project.service.ExpenseExportService;
+import org.example.project.service.ExpenseImportService;
 import org.example.project.service.ExpenseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/expenses")
@@ -22,17 +34,30 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private ExpenseImportService importService;
+
+    @Autowired
+    private ExpenseExportService exportService;
+
 
     @Operation(summary = "Get all categories", description = "Retrieve a list of all expense categories")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved categories"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/categories")
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(
+            @Parameter(description = "ETag from a previous response")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = HttpCaching.etag(expenseService.getDataVersion());
+            if (HttpCaching.matches(ifNoneMatch, etag)) {
+                return HttpCaching.notModified(etag);
+            }
             List<String> categories = expenseService.getAllCategories();
-            return ResponseEntity.ok(categories);
+            return HttpCaching.ok(etag).body(categories);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -43,6 +68,7 @@ public class ExpenseController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Category created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping("/categories")
@@ -53,6 +79,9 @@ public class ExpenseController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -64,6 +93,7 @@ public class ExpenseController {
             @ApiResponse(responseCode = "200", description = "Category deleted successfully"),
             @ApiResponse(responseCode = "400", description = "Cannot delete category with expenses"),
             @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @DeleteMapping("/categories/{categoryName}")
@@ -78,6 +108,9 @@ public class ExpenseController {
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("CANNOT_DELETE", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -85,35 +118,68 @@ public class ExpenseController {
     }
 
 
-    @Operation(summary = "Get all expenses", description = "Retrieve a list of all expenses")
+    @Operation(summary = "Get all expenses", description = "Retrieve expenses in id order, one keyset page at a time, optionally filtered by expense date and amount")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved expenses"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or filter parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping
-    public ResponseEntity<?> getAllExpenses() {
+    public ResponseEntity<?> getAllExpenses(
+            @Parameter(description = "Maximum expenses per page (1-1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Return expenses with an id greater than this; use nextAfter from the previous page")
+            @RequestParam(defaultValue = "0") int after,
+            @Parameter(description = "Earliest expense date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Latest expense date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "Minimum amount in USD, inclusive")
+            @RequestParam(required = false) Double minAmount,
+            @Parameter(description = "Maximum amount in USD, inclusive")
+            @RequestParam(required = false) Double maxAmount) {
         try {
-            List<String> expenses = expenseService.getAllExpenses();
-            return ResponseEntity.ok(expenses);
+            ExpensePage page = expenseService.findExpenses(
+                    new ExpenseQuery(null, after, limit, from, to, minAmount, maxAmount));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
         }
     }
 
-    @Operation(summary = "Get expenses by category", description = "Retrieve all expenses for a specific category")
+    @Operation(summary = "Get expenses by category", description = "Retrieve the expenses of a specific category, one keyset page at a time, optionally filtered by expense date and amount")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved expenses"),
-            @ApiResponse(responseCode = "404", description = "Category not found"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or filter parameters"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/category/{categoryName}")
     public ResponseEntity<?> getExpensesByCategory(
             @Parameter(description = "Name of the category") 
-            @PathVariable String categoryName) {
+            @PathVariable String categoryName,
+            @Parameter(description = "Maximum expenses per page (1-1000)")
+            @RequestParam(defaultValue = "100") int limit,
+            @Parameter(description = "Return expenses with an id greater than this; use nextAfter from the previous page")
+            @RequestParam(defaultValue = "0") int after,
+            @Parameter(description = "Earliest expense date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Latest expense date, inclusive (yyyy-MM-dd)")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "Minimum amount in USD, inclusive")
+            @RequestParam(required = false) Double minAmount,
+            @Parameter(description = "Maximum amount in USD, inclusive")
+            @RequestParam(required = false) Double maxAmount) {
         try {
-            List<String> expenses = expenseService.getExpensesByCategory(categoryName);
-            return ResponseEntity.ok(expenses);
+            ExpensePage page = expenseService.findExpenses(
+                    new ExpenseQuery(categoryName, after, limit, from, to, minAmount, maxAmount));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -124,6 +190,7 @@ public class ExpenseController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Expense created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
@@ -134,16 +201,112 @@ public class ExpenseController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Add expenses in bulk", description = "Insert many expenses in one transaction, converting each currency once and reporting per-row errors")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "All expenses created successfully"),
+            @ApiResponse(responseCode = "200", description = "Some rows were rejected; see errors"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<?> addExpenses(@RequestBody List<ExpenseRequest> requests) {
+        try {
+            BatchExpenseResponse response = expenseService.addExpenses(requests);
+            HttpStatus status = response.getErrors().isEmpty() ? HttpStatus.CREATED : HttpStatus.OK;
+            return ResponseEntity.status(status).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
         }
     }
 
+    @Operation(summary = "Import expenses from CSV or NDJSON", description = "Stream a CSV (with header row) or NDJSON request body into the database; rejected rows are reported by line number")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format or malformed CSV header"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/import")
+    public ResponseEntity<?> importExpenses(
+            @Parameter(description = "Body format: csv or ndjson")
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body) {
+        try {
+            ImportReportResponse report = importService.importExpenses(body, ExpenseImportService.Format.fromName(format));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ErrorResponse("IMPORT_ERROR", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Export all expenses as NDJSON or CSV", description = "Stream every expense in id order, read in keyset chunks each under a short database read; gzip-compressed when the client sends Accept-Encoding: gzip. Rows carry the stored USD amount in cents and the original currency code, so the output is not an import file")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<?> exportExpenses(
+            @Parameter(description = "Output format: ndjson or csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExpenseImportService.Format exportFormat;
+        try {
+            exportFormat = ExpenseImportService.Format.fromName(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("INVALID_INPUT", e.getMessage()));
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        boolean csv = exportFormat == ExpenseImportService.Format.CSV;
+        StreamingResponseBody body = output -> {
+            try {
+                exportService.export(output, exportFormat, gzip);
+            } catch (SQLException e) {
+                throw new IOException("Export failed: " + e.getMessage(), e);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"expenses." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @Operation(summary = "Delete an expense", description = "Delete an expense by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Expense deleted successfully"),
             @ApiResponse(responseCode = "404", description = "Expense not found"),
+            @ApiResponse(responseCode = "503", description = "Too many writes pending"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @DeleteMapping("/{expenseId}")
@@ -156,6 +319,9 @@ public class ExpenseController {
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ErrorResponse("NOT_FOUND", e.getMessage()));
+        } catch (SQLTransientConnectionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("DATABASE_BUSY", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -166,13 +332,20 @@ public class ExpenseController {
     @Operation(summary = "Generate expense report", description = "Get a comprehensive report of all expenses with category breakdowns")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Report generated successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/report")
-    public ResponseEntity<?> generateReport() {
+    public ResponseEntity<?> generateReport(
+            @Parameter(description = "ETag from a previous response")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = HttpCaching.etag(expenseService.getDataVersion());
+            if (HttpCaching.matches(ifNoneMatch, etag)) {
+                return HttpCaching.notModified(etag);
+            }
             ReportResponse report = expenseService.generateReport();
-            return ResponseEntity.ok(report);
+            return HttpCaching.ok(etag).body(report);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("REPORT_ERROR", e.getMessage()));
@@ -182,13 +355,20 @@ public class ExpenseController {
     @Operation(summary = "Get total expenses", description = "Get the total amount of all expenses")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Total calculated successfully"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/total")
-    public ResponseEntity<?> getTotalExpenses() {
+    public ResponseEntity<?> getTotalExpenses(
+            @Parameter(description = "ETag from a previous response")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            String etag = HttpCaching.etag(expenseService.getDataVersion());
+            if (HttpCaching.matches(ifNoneMatch, etag)) {
+                return HttpCaching.notModified(etag);
+            }
             double total = expenseService.getTotalExpenses();
-            return ResponseEntity.ok(new TotalResponse(total));
+            return HttpCaching.ok(etag).body(new TotalResponse(total));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ErrorResponse("DATABASE_ERROR", e.getMessage()));
@@ -0,0 +1,52 @@
+package org.example.project.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags for read endpoints whose content is identified by a data or snapshot
+ * version. Responses carry {@code Cache-Control: no-cache}, so clients revalidate on
+ * every poll and an unchanged resource costs one version comparison and a 304.
+ */
+final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    static String etag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Whether {@code ifNoneMatch} (the raw header, possibly a comma-separated list or
+     * {@code *}) matches {@code etag}, using the weak comparison RFC 9110 requires for
+     * If-None-Match.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+}
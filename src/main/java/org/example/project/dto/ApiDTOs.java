@@ -181,6 +181,151 @@ public class ApiDTOs {
         }
     }
 
+    public static class BatchExpenseResponse {
+        private int received;
+        private int inserted;
+        private List<RowError> errors;
+
+        public BatchExpenseResponse() {}
+
+        public BatchExpenseResponse(int received, int inserted, List<RowError> errors) {
+            this.received = received;
+            this.inserted = inserted;
+            this.errors = errors;
+        }
+
+        public int getReceived() {
+            return received;
+        }
+
+        public void setReceived(int received) {
+            this.received = received;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public void setInserted(int inserted) {
+            this.inserted = inserted;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<RowError> errors) {
+            this.errors = errors;
+        }
+
+        public static class RowError {
+            private int index;
+            private String message;
+
+            public RowError() {}
+
+            public RowError(int index, String message) {
+                this.index = index;
+                this.message = message;
+            }
+
+            public int getIndex() {
+                return index;
+            }
+
+            public void setIndex(int index) {
+                this.index = index;
+            }
+
+            public String getMessage() {
+                return message;
+            }
+
+            public void setMessage(String message) {
+                this.message = message;
+            }
+        }
+    }
+
+    public static class ImportReportResponse {
+        private boolean completed;
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long elapsedMillis;
+        private double rowsPerSecond;
+        private List<BatchExpenseResponse.RowError> errors;
+
+        public ImportReportResponse() {}
+
+        public ImportReportResponse(boolean completed, long rowsRead, long rowsImported, long rowsRejected,
+                                    long elapsedMillis, double rowsPerSecond, List<BatchExpenseResponse.RowError> errors) {
+            this.completed = completed;
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+            this.elapsedMillis = elapsedMillis;
+            this.rowsPerSecond = rowsPerSecond;
+            this.errors = errors;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public void setCompleted(boolean completed) {
+            this.completed = completed;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public void setRowsRead(long rowsRead) {
+            this.rowsRead = rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        public void setRowsImported(long rowsImported) {
+            this.rowsImported = rowsImported;
+        }
+
+        public long getRowsRejected() {
+            return rowsRejected;
+        }
+
+        public void setRowsRejected(long rowsRejected) {
+            this.rowsRejected = rowsRejected;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public void setElapsedMillis(long elapsedMillis) {
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public double getRowsPerSecond() {
+            return rowsPerSecond;
+        }
+
+        public void setRowsPerSecond(double rowsPerSecond) {
+            this.rowsPerSecond = rowsPerSecond;
+        }
+
+        public List<BatchExpenseResponse.RowError> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<BatchExpenseResponse.RowError> errors) {
+            this.errors = errors;
+        }
+    }
+
     public static class ReportResponse {
         private double totalExpenses;
         private List<CategoryBreakdown> categoryBreakdowns;
@@ -248,11 +393,18 @@ public class ApiDTOs {
     }
 
     public static class CurrencyPredictionResponse {
+        public static final String STATUS_OK = "OK";
+        public static final String STATUS_ERROR = "ERROR";
+        public static final String STATUS_TIMEOUT = "TIMEOUT";
+
         private String currency;
         private double currentRate;
         private double predictedRate;
         private double changePercentage;
         private String recommendation;
+        private String model;
+        private String status = STATUS_OK;
+        private String error;
 
         public CurrencyPredictionResponse() {}
 
@@ -265,6 +417,14 @@ public class ApiDTOs {
             this.recommendation = recommendation;
         }
 
+        public static CurrencyPredictionResponse failed(String currency, String status, String error) {
+            CurrencyPredictionResponse response = new CurrencyPredictionResponse();
+            response.currency = currency;
+            response.status = status;
+            response.error = error;
+            return response;
+        }
+
         public String getCurrency() {
             return currency;
         }
@@ -304,6 +464,30 @@ public class ApiDTOs {
         public void setRecommendation(String recommendation) {
             this.recommendation = recommendation;
         }
+
+        public String getModel() {
+            return model;
+        }
+
+        public void setModel(String model) {
+            this.model = model;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
     }
 
     public static class ErrorResponse {
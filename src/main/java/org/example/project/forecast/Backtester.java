@@ -0,0 +1,168 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Rolling-origin backtests of forecast models over recorded rate history. For every
+ * origin day with {@code window} days before it and {@code horizon} days after it,
+ * the model is fitted on the window and scored against the following days. Each
+ * (currency, model) pair is split recursively over its origins on a fork-join pool.
+ */
+public class Backtester {
+
+    private static final int ORIGINS_PER_TASK = 32;
+
+    private final ForecastModelRegistry models;
+    private final ForkJoinPool pool;
+
+    public Backtester(ForecastModelRegistry models, ForkJoinPool pool) {
+        this.models = models;
+        this.pool = pool;
+    }
+
+    public BacktestReport run(Map<String, RateSeries> histories, List<String> modelNames, int window, int horizon) {
+        if (window < 1 || horizon < 1) {
+            throw new IllegalArgumentException("window and horizon must be positive");
+        }
+
+        long start = System.nanoTime();
+        List<ForecastModel> selected = new ArrayList<>();
+        for (String name : modelNames) {
+            selected.add(models.get(name));
+        }
+
+        List<String> currencies = new ArrayList<>();
+        List<OriginsTask> tasks = new ArrayList<>();
+        for (Map.Entry<String, RateSeries> entry : histories.entrySet()) {
+            int origins = entry.getValue().size() - window - horizon + 1;
+            for (ForecastModel model : selected) {
+                currencies.add(entry.getKey());
+                tasks.add(new OriginsTask(model, entry.getValue(), window, horizon, 0, Math.max(origins, 0)));
+            }
+        }
+
+        List<Score> scores = pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected List<Score> compute() {
+                invokeAll(tasks);
+                List<Score> joined = new ArrayList<>(tasks.size());
+                for (OriginsTask task : tasks) {
+                    joined.add(task.join());
+                }
+                return joined;
+            }
+        });
+
+        List<BacktestResult> byCurrency = new ArrayList<>();
+        Map<String, Score> byModel = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            String model = tasks.get(i).model.name();
+            Score score = scores.get(i);
+            byCurrency.add(score.toResult(currencies.get(i), model));
+            byModel.computeIfAbsent(model, key -> new Score()).merge(score);
+        }
+
+        List<BacktestResult> summary = new ArrayList<>();
+        byModel.forEach((model, score) -> summary.add(score.toResult(BacktestResult.ALL_CURRENCIES, model)));
+        summary.sort(Comparator.comparingDouble(BacktestResult::mape));
+
+        return new BacktestReport(window, horizon, (System.nanoTime() - start) / 1_000_000, summary, byCurrency);
+    }
+
+    private static final class OriginsTask extends RecursiveTask<Score> {
+        private final ForecastModel model;
+        private final RateSeries history;
+        private final int window;
+        private final int horizon;
+        private final int fromOrigin;
+        private final int toOrigin;
+
+        private OriginsTask(ForecastModel model, RateSeries history, int window, int horizon,
+                            int fromOrigin, int toOrigin) {
+            this.model = model;
+            this.history = history;
+            this.window = window;
+            this.horizon = horizon;
+            this.fromOrigin = fromOrigin;
+            this.toOrigin = toOrigin;
+        }
+
+        @Override
+        protected Score compute() {
+            if (toOrigin - fromOrigin > ORIGINS_PER_TASK) {
+                int middle = (fromOrigin + toOrigin) >>> 1;
+                OriginsTask left = new OriginsTask(model, history, window, horizon, fromOrigin, middle);
+                OriginsTask right = new OriginsTask(model, history, window, horizon, middle, toOrigin);
+                left.fork();
+                Score score = right.compute();
+                score.merge(left.join());
+                return score;
+            }
+
+            HorizonKernel kernel = HorizonKernel.get();
+            double[] predicted = new double[horizon];
+            double[] actual = new double[horizon];
+            Score score = new Score();
+            for (int origin = fromOrigin; origin < toOrigin; origin++) {
+                RateSeries training = history.slice(origin, window);
+
+                long started = System.nanoTime();
+                RateSeries forecast = model.forecast(training, horizon);
+                score.nanos += System.nanoTime() - started;
+                score.forecasts++;
+
+                forecast.copyTo(predicted, 0);
+                history.slice(origin + window, horizon).copyTo(actual, 0);
+                double[] errors = kernel.absoluteErrors(predicted, actual, horizon);
+                score.absoluteError += errors[0];
+                score.absolutePercentageError += errors[1];
+                score.points += horizon;
+            }
+            return score;
+        }
+    }
+
+    private static final class Score {
+        private long forecasts;
+        private long points;
+        private long nanos;
+        private double absoluteError;
+        private double absolutePercentageError;
+
+        private void merge(Score other) {
+            forecasts += other.forecasts;
+            points += other.points;
+            nanos += other.nanos;
+            absoluteError += other.absoluteError;
+            absolutePercentageError += other.absolutePercentageError;
+        }
+
+        private BacktestResult toResult(String currency, String model) {
+            return new BacktestResult(
+                    currency,
+                    model,
+                    forecasts,
+                    points == 0 ? Double.NaN : absoluteError / points,
+                    points == 0 ? Double.NaN : 100 * absolutePercentageError / points,
+                    forecasts == 0 ? Double.NaN : (double) nanos / forecasts
+            );
+        }
+    }
+
+    public record BacktestResult(String currency, String model, long forecasts, double mae, double mape,
+                                 double nanosPerForecast) {
+        public static final String ALL_CURRENCIES = "ALL";
+    }
+
+    public record BacktestReport(int window, int horizon, long elapsedMillis, List<BacktestResult> models,
+                                 List<BacktestResult> currencies) {
+    }
+}
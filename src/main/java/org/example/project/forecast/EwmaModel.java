@@ -0,0 +1,35 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+
+import java.util.Arrays;
+
+/**
+ * Exponentially weighted moving average. The smoothed level is the forecast for
+ * every future day, so this is the cheapest model and has no trend.
+ */
+public class EwmaModel implements ForecastModel {
+
+    private final double alpha;
+
+    public EwmaModel(double alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    public String name() {
+        return "ewma";
+    }
+
+    @Override
+    public RateSeries forecast(RateSeries history, int horizon) {
+        double level = history.get(0);
+        for (int i = 1; i < history.size(); i++) {
+            level += alpha * (history.get(i) - level);
+        }
+
+        double[] predictions = new double[horizon];
+        Arrays.fill(predictions, level);
+        return RateSeries.wrap(history.endEpochDay() + 1, predictions, horizon);
+    }
+}
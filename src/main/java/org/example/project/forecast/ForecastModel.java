@@ -0,0 +1,21 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+
+/**
+ * A forecasting method that extrapolates a daily rate series. Implementations must
+ * be stateless and thread-safe, and should read the history in a single pass.
+ */
+public interface ForecastModel {
+
+    /**
+     * The name the model is registered and requested under, e.g. {@code holt}.
+     */
+    String name();
+
+    /**
+     * Forecasts the {@code horizon} days following the last day of {@code history}.
+     * {@code history} is never empty.
+     */
+    RateSeries forecast(RateSeries history, int horizon);
+}
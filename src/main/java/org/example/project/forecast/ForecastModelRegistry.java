@@ -0,0 +1,51 @@
+package org.example.project.forecast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forecast models by name. {@link #withBuiltIns()} registers {@code linear} (least
+ * squares over the whole history window), {@code windowed} (least squares over the
+ * last 10 days), {@code ewma}, {@code holt} and {@code holt-winters}.
+ */
+public class ForecastModelRegistry {
+
+    public static final String DEFAULT_MODEL = "linear";
+
+    private final Map<String, ForecastModel> models = new ConcurrentHashMap<>();
+
+    public static ForecastModelRegistry withBuiltIns() {
+        ForecastModelRegistry registry = new ForecastModelRegistry();
+        registry.register(new LeastSquaresModel("linear", LeastSquaresModel.WHOLE_HISTORY));
+        registry.register(new LeastSquaresModel("windowed", 10));
+        registry.register(new EwmaModel(0.3));
+        registry.register(new HoltModel(0.5, 0.3));
+        registry.register(new HoltWintersModel(0.5, 0.3, 0.2, 7));
+        return registry;
+    }
+
+    public void register(ForecastModel model) {
+        models.put(model.name().toLowerCase(Locale.ROOT), model);
+    }
+
+    public boolean contains(String name) {
+        return name != null && models.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    public ForecastModel get(String name) {
+        ForecastModel model = name == null ? null : models.get(name.toLowerCase(Locale.ROOT));
+        if (model == null) {
+            throw new IllegalArgumentException("Unknown forecast model: " + name + " (available: " + names() + ")");
+        }
+        return model;
+    }
+
+    public List<String> names() {
+        List<String> names = new ArrayList<>(models.keySet());
+        names.sort(null);
+        return names;
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+
+/**
+ * Holt's linear trend method: exponentially smoothed level and trend, extrapolated
+ * as a straight line from the last level.
+ */
+public class HoltModel implements ForecastModel {
+
+    private final double alpha;
+    private final double beta;
+
+    public HoltModel(double alpha, double beta) {
+        this.alpha = alpha;
+        this.beta = beta;
+    }
+
+    @Override
+    public String name() {
+        return "holt";
+    }
+
+    @Override
+    public RateSeries forecast(RateSeries history, int horizon) {
+        double level = history.get(0);
+        double trend = history.size() > 1 ? history.get(1) - history.get(0) : 0;
+
+        for (int i = 1; i < history.size(); i++) {
+            double previousLevel = level;
+            level = alpha * history.get(i) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        }
+
+        double[] predictions = new double[horizon];
+        HorizonKernel.get().linear(level, trend, 1, predictions, horizon);
+        return RateSeries.wrap(history.endEpochDay() + 1, predictions, horizon);
+    }
+}
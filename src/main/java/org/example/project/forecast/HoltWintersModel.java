@@ -0,0 +1,71 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+
+/**
+ * Additive Holt-Winters: level, trend and a repeating seasonal offset (weekly by
+ * default). The first season seeds the level and seasonal offsets; with fewer than
+ * two seasons of history it degrades to Holt's linear trend method.
+ */
+public class HoltWintersModel implements ForecastModel {
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final int seasonLength;
+    private final HoltModel fallback;
+
+    public HoltWintersModel(double alpha, double beta, double gamma, int seasonLength) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonLength = seasonLength;
+        this.fallback = new HoltModel(alpha, beta);
+    }
+
+    @Override
+    public String name() {
+        return "holt-winters";
+    }
+
+    @Override
+    public RateSeries forecast(RateSeries history, int horizon) {
+        int n = history.size();
+        int m = seasonLength;
+        if (n < 2 * m) {
+            return fallback.forecast(history, horizon);
+        }
+
+        double firstSeasonMean = 0;
+        double secondSeasonMean = 0;
+        for (int i = 0; i < m; i++) {
+            firstSeasonMean += history.get(i);
+            secondSeasonMean += history.get(m + i);
+        }
+        firstSeasonMean /= m;
+        secondSeasonMean /= m;
+
+        double[] seasonal = new double[m];
+        for (int i = 0; i < m; i++) {
+            seasonal[i] = history.get(i) - firstSeasonMean;
+        }
+        double level = firstSeasonMean;
+        double trend = (secondSeasonMean - firstSeasonMean) / m;
+
+        for (int i = m; i < n; i++) {
+            double y = history.get(i);
+            int s = i % m;
+            double previousLevel = level;
+            level = alpha * (y - seasonal[s]) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            seasonal[s] = gamma * (y - level) + (1 - gamma) * seasonal[s];
+        }
+
+        double[] predictions = new double[horizon];
+        HorizonKernel.get().linear(level, trend, 1, predictions, horizon);
+        for (int day = 1; day <= horizon; day++) {
+            predictions[day - 1] += seasonal[(n - 1 + day) % m];
+        }
+        return RateSeries.wrap(history.endEpochDay() + 1, predictions, horizon);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.project.forecast;
+
+/**
+ * Bulk arithmetic over whole forecast horizons. {@link #get()} returns the Vector API
+ * implementation when it was compiled in (the {@code vector} Maven profile) and the JVM
+ * runs with {@code --add-modules jdk.incubator.vector}; otherwise it returns the scalar
+ * one. Set {@code -Dexpenses.predictions.vector=false} to force the scalar path.
+ */
+public interface HorizonKernel {
+
+    /**
+     * Writes {@code intercept + slope * (firstX + i)} to {@code out[i]} for {@code i < length}.
+     */
+    void linear(double intercept, double slope, double firstX, double[] out, int length);
+
+    /**
+     * Returns {Σ|f - a|, Σ|f - a| / |a|} over the first {@code length} entries; entries
+     * with {@code a == 0} add nothing to the relative sum.
+     */
+    double[] absoluteErrors(double[] forecast, double[] actual, int length);
+
+    String name();
+
+    static HorizonKernel get() {
+        return Holder.INSTANCE;
+    }
+
+    final class Holder {
+        private static final HorizonKernel INSTANCE = load();
+
+        private Holder() {
+        }
+
+        private static HorizonKernel load() {
+            boolean enabled = Boolean.parseBoolean(System.getProperty("expenses.predictions.vector", "true"));
+            if (enabled && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (HorizonKernel) Class.forName("org.example.project.forecast.VectorHorizonKernel")
+                            .getDeclaredConstructor()
+                            .newInstance();
+                } catch (ClassNotFoundException e) {
+                    // Built without the vector profile.
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    e.printStackTrace();
+                }
+            }
+            return new ScalarHorizonKernel();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+import org.example.project.SlidingWindowRegression;
+
+/**
+ * Straight line fitted by least squares to the last {@code window} days, or to the
+ * whole history when {@code window} is {@link #WHOLE_HISTORY}.
+ */
+public class LeastSquaresModel implements ForecastModel {
+
+    public static final int WHOLE_HISTORY = 0;
+
+    private final String name;
+    private final int window;
+
+    public LeastSquaresModel(String name, int window) {
+        this.name = name;
+        this.window = window;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    public int window() {
+        return window;
+    }
+
+    /**
+     * The number of days actually fitted for a history of {@code historyDays} days.
+     */
+    public int windowFor(int historyDays) {
+        return window == WHOLE_HISTORY ? Math.max(1, historyDays) : window;
+    }
+
+    @Override
+    public RateSeries forecast(RateSeries history, int horizon) {
+        return extrapolate(SlidingWindowRegression.of(history, windowFor(history.size())).fit(), history.endEpochDay(), horizon);
+    }
+
+    public static RateSeries extrapolate(SlidingWindowRegression.Fit fit, long lastEpochDay, int horizon) {
+        double[] predictions = new double[horizon];
+        // x of the newest value is size - 1, so the first forecast day sits at x = size.
+        HorizonKernel.get().linear(fit.intercept(), fit.slope(), fit.size(), predictions, horizon);
+        return RateSeries.wrap(lastEpochDay + 1, predictions, horizon);
+    }
+}
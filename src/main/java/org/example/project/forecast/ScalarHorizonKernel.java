@@ -0,0 +1,30 @@
+package org.example.project.forecast;
+
+class ScalarHorizonKernel implements HorizonKernel {
+
+    @Override
+    public void linear(double intercept, double slope, double firstX, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = intercept + slope * (firstX + i);
+        }
+    }
+
+    @Override
+    public double[] absoluteErrors(double[] forecast, double[] actual, int length) {
+        double absolute = 0;
+        double relative = 0;
+        for (int i = 0; i < length; i++) {
+            double error = Math.abs(forecast[i] - actual[i]);
+            absolute += error;
+            if (actual[i] != 0) {
+                relative += error / Math.abs(actual[i]);
+            }
+        }
+        return new double[]{absolute, relative};
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
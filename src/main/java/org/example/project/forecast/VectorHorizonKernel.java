@@ -0,0 +1,68 @@
+package org.example.project.forecast;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link HorizonKernel} on the incubating Vector API. Only loaded reflectively by
+ * {@link HorizonKernel#get()} after checking that the module is present.
+ */
+class VectorHorizonKernel implements HorizonKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final DoubleVector lanes;
+
+    VectorHorizonKernel() {
+        double[] iota = new double[SPECIES.length()];
+        for (int i = 0; i < iota.length; i++) {
+            iota[i] = i;
+        }
+        lanes = DoubleVector.fromArray(SPECIES, iota, 0);
+    }
+
+    @Override
+    public void linear(double intercept, double slope, double firstX, double[] out, int length) {
+        int step = SPECIES.length();
+        int i = 0;
+        for (; i < SPECIES.loopBound(length); i += step) {
+            lanes.add(firstX + i).fma(slope, intercept).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = intercept + slope * (firstX + i);
+        }
+    }
+
+    @Override
+    public double[] absoluteErrors(double[] forecast, double[] actual, int length) {
+        int step = SPECIES.length();
+        DoubleVector absolute = DoubleVector.zero(SPECIES);
+        DoubleVector relative = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < SPECIES.loopBound(length); i += step) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, actual, i);
+            DoubleVector error = DoubleVector.fromArray(SPECIES, forecast, i).sub(a).abs();
+            VectorMask<Double> nonZero = a.compare(VectorOperators.NE, 0.0);
+            absolute = absolute.add(error);
+            relative = relative.add(error.div(a.abs()), nonZero);
+        }
+
+        double absoluteSum = absolute.reduceLanes(VectorOperators.ADD);
+        double relativeSum = relative.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double error = Math.abs(forecast[i] - actual[i]);
+            absoluteSum += error;
+            if (actual[i] != 0) {
+                relativeSum += error / Math.abs(actual[i]);
+            }
+        }
+        return new double[]{absoluteSum, relativeSum};
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}
@@ -1,91 +1,365 @@
 package org.example.project.service;
 
+import org.example.project.ApiManager;
+import org.example.project.AppProperties;
+import org.example.project.CurrencyForecast;
 import org.example.project.CurrencyPredictor;
+import org.example.project.RateSeries;
+import org.example.project.RateSnapshot;
 import org.example.project.dto.ApiDTOs.CurrencyPredictionResponse;
+import org.example.project.forecast.Backtester;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Currency predictions for the REST API, served from an in-memory
+ * {@link ForecastSnapshot}. {@link #refresh()} fans the supported currencies out onto
+ * virtual threads, so its latency follows the slowest currency rather than the sum,
+ * and a currency that fails or misses the {@code expenses.predictions.task-timeout-ms}
+ * deadline is reported in its own entry instead of failing the whole snapshot.
+ * {@link ForecastRefreshScheduler} keeps the snapshot current; reads only compute
+ * live when no snapshot has been built yet or it has no entry for the currency.
+ */
 @Service
 public class CurrencyPredictionService {
 
+    private static final ExecutorService PREDICTION_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final ForkJoinPool BACKTEST_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     private final CurrencyPredictor predictor;
+    private final Duration taskTimeout;
+    private final AtomicReference<ForecastSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
 
     public CurrencyPredictionService() {
-        this.predictor = new CurrencyPredictor();
+        this(new CurrencyPredictor(), Duration.ofMillis(Long.parseLong(
+                AppProperties.load().getProperty("expenses.predictions.task-timeout-ms", "10000"))));
     }
 
     public CurrencyPredictionService(CurrencyPredictor predictor) {
+        this(predictor, Duration.ofSeconds(10));
+    }
+
+    public CurrencyPredictionService(CurrencyPredictor predictor, Duration taskTimeout) {
         this.predictor = predictor;
+        this.taskTimeout = taskTimeout;
     }
 
     public List<CurrencyPredictionResponse> getAllPredictions() throws Exception {
-        List<String> currencies = predictor.getSupportedCurrencies();
+        return getSnapshot().getPredictions();
+    }
 
-        return currencies.stream()
-                .map(currency -> {
-                    try {
-                        return getPredictionForCurrency(currency);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error predicting currency: " + currency, e);
-                    }
-                })
-                .collect(Collectors.toList());
+    /**
+     * The current snapshot, building the first one on demand if the scheduler has not
+     * produced it yet.
+     */
+    public ForecastSnapshot getSnapshot() throws InterruptedException {
+        ForecastSnapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        refreshLock.lockInterruptibly();
+        try {
+            current = snapshot.get();
+            return current != null ? current : refresh();
+        } finally {
+            refreshLock.unlock();
+        }
     }
 
-    public CurrencyPredictionResponse getPredictionForCurrency(String currency) throws Exception {
-        Map<LocalDate, Double> historicalRates = predictor.getHistoricalRates(currency);
-        Map<LocalDate, Double> predictions = predictor.predictFutureRates(currency);
+    /**
+     * Recomputes every supported currency and atomically replaces the current
+     * snapshot with the result. A currency that fails or times out keeps its last good
+     * prediction from the previous snapshot, and if no currency produced a new one the
+     * previous snapshot stays in place, so an upstream outage never discards good
+     * forecasts. The lock is a {@link ReentrantLock} rather than a monitor so a virtual
+     * thread waiting on the fan-out does not pin its carrier.
+     */
+    public ForecastSnapshot refresh() throws InterruptedException {
+        refreshLock.lockInterruptibly();
+        try {
+            ForecastSnapshot previous = snapshot.get();
+            Map<String, CurrencyForecast> forecasts = new HashMap<>();
+            List<CurrencyPredictionResponse> predictions = predictAll(null, null, null, forecasts);
 
-        double currentRate = historicalRates.values().stream()
-                .reduce((first, second) -> second)
-                .orElse(1.0);
+            int refreshedCurrencies = 0;
+            for (int i = 0; i < predictions.size(); i++) {
+                CurrencyPredictionResponse prediction = predictions.get(i);
+                if (CurrencyPredictionResponse.STATUS_OK.equals(prediction.getStatus())) {
+                    refreshedCurrencies++;
+                    continue;
+                }
+                CurrencyPredictionResponse lastGood = previous == null ? null : previous.getPrediction(prediction.getCurrency());
+                if (lastGood != null) {
+                    predictions.set(i, lastGood);
+                    forecasts.put(prediction.getCurrency(), previous.getForecast(prediction.getCurrency()));
+                }
+            }
+            if (previous != null && refreshedCurrencies == 0) {
+                return previous;
+            }
 
-        double futureRate = predictions.values().stream()
-                .reduce((first, second) -> second)
-                .orElse(currentRate);
+            ForecastSnapshot refreshed = new ForecastSnapshot(
+                    snapshotVersion.incrementAndGet(), Instant.now(), predictions, forecasts);
+            snapshot.set(refreshed);
+            return refreshed;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
 
-        double changePercentage = ((futureRate - currentRate) / currentRate) * 100;
+    /**
+     * Predictions for every supported currency with {@code model}, {@code window} and
+     * {@code horizon}; null arguments take each currency's configured model and the
+     * default window and horizon. With no overrides at all the snapshot is served.
+     */
+    public List<CurrencyPredictionResponse> getAllPredictions(String model, Integer window, Integer horizon)
+            throws Exception {
+        return isDefault(model, window, horizon)
+                ? getAllPredictions()
+                : predictAll(model, window, horizon, new HashMap<>());
+    }
 
-        String recommendation = generateRecommendation(changePercentage, currency);
+    private List<CurrencyPredictionResponse> predictAll(String model, Integer window, Integer horizon,
+                                                        Map<String, CurrencyForecast> forecasts)
+            throws InterruptedException {
+        List<String> currencies = predictor.getSupportedCurrencies();
+
+        long deadline = System.nanoTime() + taskTimeout.toNanos();
+        List<Future<CurrencyForecast>> futures = new ArrayList<>(currencies.size());
+        for (String currency : currencies) {
+            futures.add(PREDICTION_EXECUTOR.submit(() -> isDefault(model, window, horizon)
+                    ? predictor.predict(currency)
+                    : predict(currency, model, window, horizon)));
+        }
 
-        return new CurrencyPredictionResponse(
-                currency,
-                currentRate,
-                futureRate,
-                changePercentage,
-                recommendation
+        List<CurrencyPredictionResponse> predictions = new ArrayList<>(currencies.size());
+        for (int i = 0; i < currencies.size(); i++) {
+            String currency = currencies.get(i);
+            try {
+                CurrencyForecast forecast = await(futures.get(i), deadline);
+                forecasts.put(currency, forecast);
+                predictions.add(toResponse(forecast));
+            } catch (TimeoutException e) {
+                predictions.add(CurrencyPredictionResponse.failed(currency, CurrencyPredictionResponse.STATUS_TIMEOUT,
+                        "Prediction did not complete within " + taskTimeout.toMillis() + " ms"));
+            } catch (ExecutionException e) {
+                predictions.add(CurrencyPredictionResponse.failed(currency, CurrencyPredictionResponse.STATUS_ERROR,
+                        "Error predicting currency: " + currency + ": " + e.getCause().getMessage()));
+            }
+        }
+        return predictions;
+    }
+
+    private static <T> T await(Future<T> future, long deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    public CurrencyPredictionResponse getPredictionForCurrency(String currency) throws Exception {
+        ForecastSnapshot current = snapshot.get();
+        CurrencyPredictionResponse cached = current == null ? null : current.getPrediction(currency);
+        return cached != null ? cached : toResponse(predictor.predict(currency));
+    }
+
+    public CurrencyPredictionResponse getPredictionForCurrency(String currency, String model, Integer window,
+                                                               Integer horizon) throws Exception {
+        return isDefault(model, window, horizon)
+                ? getPredictionForCurrency(currency)
+                : toResponse(getForecast(currency, model, window, horizon));
+    }
+
+    private static CurrencyPredictionResponse toResponse(CurrencyForecast forecast) {
+        CurrencyPredictionResponse response = new CurrencyPredictionResponse(
+                forecast.getCurrency(),
+                forecast.getCurrentRate(),
+                forecast.getPredictedRate(),
+                forecast.getChangePercentage(),
+                forecast.getRecommendation()
         );
+        response.setModel(forecast.getModel());
+        return response;
+    }
+
+    public RateSeries getHistoricalRates(String currency) throws Exception {
+        CurrencyForecast cached = cachedForecast(currency);
+        return cached != null ? cached.getHistoricalRates() : predictor.getHistoricalRates(currency);
+    }
+
+    public RateSeries getFuturePredictions(String currency) throws Exception {
+        CurrencyForecast cached = cachedForecast(currency);
+        return cached != null ? cached.getPredictions() : predictor.predictFutureRates(currency);
     }
 
-    public Map<LocalDate, Double> getHistoricalRates(String currency) throws Exception {
-        return predictor.getHistoricalRates(currency);
+    public RateSeries getHistoricalRates(String currency, Integer window) throws Exception {
+        return window == null ? getHistoricalRates(currency) : predictor.getHistoricalRates(currency, window);
     }
 
-    public Map<LocalDate, Double> getFuturePredictions(String currency) throws Exception {
-        return predictor.predictFutureRates(currency);
+    public RateSeries getFuturePredictions(String currency, String model, Integer window, Integer horizon)
+            throws Exception {
+        return isDefault(model, window, horizon)
+                ? getFuturePredictions(currency)
+                : getForecast(currency, model, window, horizon).getPredictions();
     }
 
     public List<String> getSupportedCurrencies() {
         return predictor.getSupportedCurrencies();
     }
 
-    private String generateRecommendation(double changePercentage, String currency) {
-        if (Math.abs(changePercentage) < 0.5) {
-            return "Stable - No significant change expected";
-        } else if (changePercentage > 0) {
-            return String.format("USD likely to strengthen against %s (%.2f%% increase)", 
-                               currency, changePercentage);
-        } else {
-            return String.format("USD likely to weaken against %s (%.2f%% decrease)", 
-                               currency, Math.abs(changePercentage));
+    /**
+     * Whether {@code currency} can be used in a pair: the base currency, a supported
+     * currency, or any currency in the last fetched rate table.
+     */
+    public boolean isKnownCurrency(String currency) {
+        if (currency.equals(ApiManager.BASE_CURRENCY) || predictor.getSupportedCurrencies().contains(currency)) {
+            return true;
+        }
+        RateSnapshot last = ApiManager.getLastSnapshot();
+        return last != null && last.contains(currency);
+    }
+
+    /**
+     * Adds an upstream currency to the predicted currencies; it is included from the
+     * next snapshot refresh on. Returns false if it was already supported.
+     */
+    public boolean addSupportedCurrency(String currency) throws Exception {
+        return predictor.addSupportedCurrency(currency, ApiManager.getRateSnapshot());
+    }
+
+    public CurrencyPredictionResponse getPairPrediction(String base, String quote, String model, Integer window,
+                                                        Integer horizon) throws Exception {
+        return toResponse(predictor.predictPair(base, quote,
+                model != null ? model : predictor.getModelFor(base + "/" + quote),
+                orDefault(window, CurrencyPredictor.DEFAULT_WINDOW_DAYS),
+                orDefault(horizon, CurrencyPredictor.DEFAULT_HORIZON_DAYS)));
+    }
+
+    public List<String> getAvailableModels() {
+        return predictor.getModels().names();
+    }
+
+    public boolean isAvailableModel(String model) {
+        return model == null || predictor.getModels().contains(model);
+    }
+
+    /**
+     * Whether {@code window} and {@code horizon} are within the predictor's bounds;
+     * null means the default and is always valid.
+     */
+    public boolean isValidRange(Integer window, Integer horizon) {
+        try {
+            CurrencyPredictor.checkWindowAndHorizon(orDefault(window, CurrencyPredictor.DEFAULT_WINDOW_DAYS),
+                    orDefault(horizon, CurrencyPredictor.DEFAULT_HORIZON_DAYS));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
     public double getPredictedChangePercentage(String currency) throws Exception {
-        return predictor.getPredictedChangePercentage(currency);
+        CurrencyForecast cached = cachedForecast(currency);
+        return cached != null ? cached.getChangePercentage() : predictor.getPredictedChangePercentage(currency);
+    }
+
+    public double getPredictedChangePercentage(String currency, String model, Integer window, Integer horizon)
+            throws Exception {
+        return isDefault(model, window, horizon)
+                ? getPredictedChangePercentage(currency)
+                : getForecast(currency, model, window, horizon).getChangePercentage();
+    }
+
+    /**
+     * Backtests {@code models} over the last {@code days} days of recorded history for
+     * every supported currency. History is loaded on a virtual thread and the backtest
+     * runs on a dedicated fork-join pool, so callers are never blocked. Window and
+     * horizon follow the forecast limits, and {@code days} is capped at
+     * {@link CurrencyPredictor#MAX_BACKTEST_DAYS} because a series of that length is
+     * allocated per currency.
+     */
+    public CompletableFuture<Backtester.BacktestReport> backtest(List<String> models, int window, int horizon, int days) {
+        CurrencyPredictor.checkWindowAndHorizon(window, horizon);
+        if (days < window + horizon || days > CurrencyPredictor.MAX_BACKTEST_DAYS) {
+            throw new IllegalArgumentException("days must be between window + horizon (" + (window + horizon)
+                    + ") and " + CurrencyPredictor.MAX_BACKTEST_DAYS + ": " + days);
+        }
+        for (String model : models) {
+            predictor.getModels().get(model);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, RateSeries> histories = new LinkedHashMap<>();
+            for (String currency : predictor.getSupportedCurrencies()) {
+                try {
+                    histories.put(currency, predictor.getHistoricalRates(currency, days));
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            }
+            return histories;
+        }, PREDICTION_EXECUTOR).thenApply(histories ->
+                new Backtester(predictor.getModels(), BACKTEST_POOL).run(histories, models, window, horizon));
+    }
+
+    /**
+     * The snapshot's forecast when it was made with {@code model} over the default
+     * window and horizon, otherwise a live one.
+     */
+    private CurrencyForecast getForecast(String currency, String model, Integer window, Integer horizon)
+            throws Exception {
+        CurrencyForecast cached = cachedForecast(currency);
+        boolean defaultRange = isDefault(null, window, horizon);
+        return cached != null && defaultRange && (model == null || cached.getModel().equalsIgnoreCase(model))
+                ? cached
+                : predict(currency, model, window, horizon);
+    }
+
+    private CurrencyForecast predict(String currency, String model, Integer window, Integer horizon)
+            throws Exception {
+        return predictor.predict(currency,
+                model != null ? model : predictor.getModelFor(currency),
+                orDefault(window, CurrencyPredictor.DEFAULT_WINDOW_DAYS),
+                orDefault(horizon, CurrencyPredictor.DEFAULT_HORIZON_DAYS));
+    }
+
+    private static boolean isDefault(String model, Integer window, Integer horizon) {
+        return model == null
+                && orDefault(window, CurrencyPredictor.DEFAULT_WINDOW_DAYS) == CurrencyPredictor.DEFAULT_WINDOW_DAYS
+                && orDefault(horizon, CurrencyPredictor.DEFAULT_HORIZON_DAYS) == CurrencyPredictor.DEFAULT_HORIZON_DAYS;
+    }
+
+    private static int orDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private CurrencyForecast cachedForecast(String currency) {
+        ForecastSnapshot current = snapshot.get();
+        return current == null ? null : current.getForecast(currency);
     }
 }
\ No newline at end of file
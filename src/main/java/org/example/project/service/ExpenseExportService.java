@@ -0,0 +1,160 @@
+package org.example.project.service;
+
+import org.example.project.AppProperties;
+import org.example.project.DatabaseManager;
+import org.example.project.ExpenseRow;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the whole ledger as CSV or NDJSON into an output stream, reading it in keyset
+ * chunks of {@code expenses.export.chunk-size} rows. Rows are written through a
+ * fixed-size buffer (optionally gzipped) and flushed every
+ * {@code expenses.export.flush-rows} rows, so heap use stays at one chunk plus the
+ * buffers however many rows are exported, and no database connection is held while
+ * the client reads.
+ * <p>
+ * Rows are written as stored: {@code amountCents} is the converted USD amount and
+ * {@code currency} the code it was entered in. The original amount is not kept, so
+ * the export is deliberately not in the {@link ExpenseImportService} format, whose
+ * {@code amount} is in {@code currency} and would be converted a second time.
+ */
+@Service
+public class ExpenseExportService {
+
+    static final String CSV_HEADER = "id,categoryId,category,amountCents,transactionDate,expenseDate,currency";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DatabaseManager databaseManager;
+    private final int chunkSize;
+    private final int flushRows;
+
+    public ExpenseExportService() {
+        this(DatabaseManager.getInstance(), AppProperties.load());
+    }
+
+    private ExpenseExportService(DatabaseManager databaseManager, Properties properties) {
+        this(databaseManager,
+                Integer.parseInt(properties.getProperty("expenses.export.chunk-size", "1000")),
+                Integer.parseInt(properties.getProperty("expenses.export.flush-rows", "5000")));
+    }
+
+    public ExpenseExportService(DatabaseManager databaseManager, int chunkSize, int flushRows) {
+        this.databaseManager = databaseManager;
+        this.chunkSize = chunkSize;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Writes every expense to {@code output} and returns the number of rows written.
+     * {@code output} is finished (and, when gzipped, its trailer written) but not closed.
+     */
+    public long export(OutputStream output, ExpenseImportService.Format format, boolean gzip)
+            throws SQLException, IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : output, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        if (format == ExpenseImportService.Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long[] sinceFlush = {0};
+        long rows = databaseManager.forEachExpense(chunkSize, row -> {
+            if (format == ExpenseImportService.Format.CSV) {
+                writeCsv(writer, row);
+            } else {
+                writeJson(writer, row);
+            }
+            if (++sinceFlush[0] == flushRows) {
+                writer.flush();
+                sinceFlush[0] = 0;
+            }
+        });
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        output.flush();
+        return rows;
+    }
+
+    static void writeCsv(Writer writer, ExpenseRow row) throws IOException {
+        writer.write(Integer.toString(row.id()));
+        writer.write(',');
+        writer.write(Integer.toString(row.categoryId()));
+        writer.write(',');
+        writeCsvField(writer, row.category());
+        writer.write(',');
+        writer.write(Long.toString(row.amountCents()));
+        writer.write(',');
+        writeCsvField(writer, row.transactionDate());
+        writer.write(',');
+        writeCsvField(writer, row.expenseDate());
+        writer.write(',');
+        writeCsvField(writer, row.currency());
+        writer.write('\n');
+    }
+
+    static void writeJson(Writer writer, ExpenseRow row) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(Integer.toString(row.id()));
+        writer.write(",\"categoryId\":");
+        writer.write(Integer.toString(row.categoryId()));
+        writer.write(",\"category\":");
+        writeJsonString(writer, row.category());
+        writer.write(",\"amountCents\":");
+        writer.write(Long.toString(row.amountCents()));
+        writer.write(",\"transactionDate\":");
+        writeJsonString(writer, row.transactionDate());
+        writer.write(",\"expenseDate\":");
+        writeJsonString(writer, row.expenseDate());
+        writer.write(",\"currency\":");
+        writeJsonString(writer, row.currency());
+        writer.write("}\n");
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,353 @@
+package org.example.project.service;
+
+import org.example.project.BatchInsertResult;
+import org.example.project.DatabaseManager;
+import org.example.project.NewExpense;
+import org.example.project.dto.ApiDTOs.BatchExpenseResponse.RowError;
+import org.example.project.dto.ApiDTOs.ExpenseRequest;
+import org.example.project.dto.ApiDTOs.ImportReportResponse;
+import org.json.JSONObject;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Streams CSV or NDJSON expenses from an input stream into the database. Parsing,
+ * validation, currency conversion and batched writes run on separate threads joined
+ * by bounded queues, so a slow stage back-pressures the ones before it and memory
+ * stays proportional to the queue capacity rather than the file size.
+ */
+@Service
+public class ExpenseImportService {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromName(String name) {
+            try {
+                return Format.valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported format: " + name + " (expected csv or ndjson)");
+            }
+        }
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final DatabaseManager databaseManager;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public ExpenseImportService() {
+        this(DatabaseManager.getInstance());
+    }
+
+    public ExpenseImportService(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ExpenseImportService(DatabaseManager databaseManager, int batchSize, int queueCapacity) {
+        this.databaseManager = databaseManager;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public ImportReportResponse importExpenses(InputStream input, Format format) throws Exception {
+        return importExpenses(input, format, report -> {
+        });
+    }
+
+    public ImportReportResponse importExpenses(InputStream input, Format format,
+                                               Consumer<ImportReportResponse> progressListener) throws Exception {
+        Progress progress = new Progress();
+        BlockingQueue<Row> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Row> validated = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Row> converted = new ArrayBlockingQueue<>(queueCapacity);
+        Map<String, Double> conversionRates = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("expense-import-", 1).factory());
+
+        try {
+            ExecutorCompletionService<Void> stages = new ExecutorCompletionService<>(executor);
+            List<Future<Void>> futures = List.of(
+                    stages.submit(stage(() -> parse(input, format, parsed, progress))),
+                    stages.submit(stage(() -> validate(parsed, validated, progress))),
+                    stages.submit(stage(() -> convert(validated, converted, conversionRates, progress))),
+                    stages.submit(stage(() -> write(converted, conversionRates, progress, progressListener)))
+            );
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    stages.take().get();
+                } catch (ExecutionException e) {
+                    futures.forEach(future -> future.cancel(true));
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception exception ? exception : new RuntimeException(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ImportReportResponse report = progress.snapshot(true);
+        progressListener.accept(report);
+        return report;
+    }
+
+    private void parse(InputStream input, Format format, BlockingQueue<Row> out, Progress progress) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvColumns(splitCsvLine(line));
+                    continue;
+                }
+
+                progress.rowsRead.incrementAndGet();
+                try {
+                    ExpenseRequest request = format == Format.CSV
+                            ? parseCsvRow(splitCsvLine(line), columns)
+                            : parseJsonRow(line);
+                    out.put(new Row(lineNumber, request));
+                } catch (RuntimeException e) {
+                    progress.reject(lineNumber, "Unparseable row: " + e.getMessage());
+                }
+            }
+        } finally {
+            out.put(Row.END);
+        }
+    }
+
+    private void validate(BlockingQueue<Row> in, BlockingQueue<Row> out, Progress progress) throws Exception {
+        try {
+            for (Row row = in.take(); row != Row.END; row = in.take()) {
+                try {
+                    ExpenseService.validateExpense(row.request);
+                    row.expense = new NewExpense(
+                            row.request.getCategoryName(),
+                            row.request.getAmount(),
+                            row.request.getTransactionDate(),
+                            row.request.getExpenseDate(),
+                            row.request.getCurrency()
+                    );
+                    out.put(row);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(row.line, e.getMessage());
+                }
+            }
+        } finally {
+            out.put(Row.END);
+        }
+    }
+
+    private void convert(BlockingQueue<Row> in, BlockingQueue<Row> out, Map<String, Double> conversionRates,
+                         Progress progress) throws Exception {
+        Map<String, String> failedCurrencies = new HashMap<>();
+        try {
+            for (Row row = in.take(); row != Row.END; row = in.take()) {
+                String currency = row.expense.currency();
+                if (!conversionRates.containsKey(currency) && !failedCurrencies.containsKey(currency)) {
+                    try {
+                        conversionRates.put(currency, databaseManager.getUsdConversionRate(currency));
+                    } catch (Exception e) {
+                        failedCurrencies.put(currency, "Currency conversion failed for " + currency + ": " + e.getMessage());
+                    }
+                }
+
+                if (failedCurrencies.containsKey(currency)) {
+                    progress.reject(row.line, failedCurrencies.get(currency));
+                } else {
+                    out.put(row);
+                }
+            }
+        } finally {
+            out.put(Row.END);
+        }
+    }
+
+    private void write(BlockingQueue<Row> in, Map<String, Double> conversionRates, Progress progress,
+                       Consumer<ImportReportResponse> progressListener) throws Exception {
+        List<Row> batch = new ArrayList<>(batchSize);
+        for (Row row = in.take(); row != Row.END; row = in.take()) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                flush(batch, conversionRates, progress);
+                progressListener.accept(progress.snapshot(false));
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, conversionRates, progress);
+        }
+    }
+
+    private void flush(List<Row> batch, Map<String, Double> conversionRates, Progress progress) throws Exception {
+        List<NewExpense> expenses = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            expenses.add(row.expense);
+        }
+
+        BatchInsertResult result = databaseManager.addExpenses(expenses, conversionRates);
+        progress.rowsImported.addAndGet(result.inserted());
+        result.errors().forEach((index, message) -> progress.reject(batch.get(index).line, message));
+        batch.clear();
+    }
+
+    static Map<String, Integer> csvColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.put(name.equals("category") ? "categoryname" : name, i);
+        }
+        for (String required : List.of("categoryname", "amount", "transactiondate", "expensedate", "currency")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+            }
+        }
+        return columns;
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static ExpenseRequest parseCsvRow(List<String> fields, Map<String, Integer> columns) {
+        return new ExpenseRequest(
+                field(fields, columns, "categoryname"),
+                Double.parseDouble(field(fields, columns, "amount")),
+                field(fields, columns, "transactiondate"),
+                field(fields, columns, "expensedate"),
+                field(fields, columns, "currency")
+        );
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("missing value for " + name);
+        }
+        return fields.get(index).trim();
+    }
+
+    private static ExpenseRequest parseJsonRow(String line) {
+        JSONObject json = new JSONObject(line);
+        return new ExpenseRequest(
+                json.optString("categoryName", json.optString("category", null)),
+                json.getDouble("amount"),
+                json.optString("transactionDate", null),
+                json.optString("expenseDate", null),
+                json.optString("currency", null)
+        );
+    }
+
+    private static Callable<Void> stage(ThrowingRunnable body) {
+        return () -> {
+            body.run();
+            return null;
+        };
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    private static final class Row {
+        private static final Row END = new Row(-1, null);
+
+        private final long line;
+        private final ExpenseRequest request;
+        private NewExpense expense;
+
+        private Row(long line, ExpenseRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    private static final class Progress {
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsRejected = new AtomicLong();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+        private final ConcurrentLinkedQueue<RowError> errors = new ConcurrentLinkedQueue<>();
+
+        private void reject(long line, String message) {
+            rowsRejected.incrementAndGet();
+            if (reportedErrors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new RowError((int) line, message));
+            }
+        }
+
+        private ImportReportResponse snapshot(boolean completed) {
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            long imported = rowsImported.get();
+            List<RowError> sortedErrors = new ArrayList<>(errors);
+            sortedErrors.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+            return new ImportReportResponse(
+                    completed,
+                    rowsRead.get(),
+                    imported,
+                    rowsRejected.get(),
+                    elapsedMillis,
+                    imported * 1000.0 / elapsedMillis,
+                    sortedErrors
+            );
+        }
+    }
+}
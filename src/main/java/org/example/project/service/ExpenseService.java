@@ -1,12 +1,22 @@
 package org.example.project.service;
 
+import org.example.project.ApiManager;
+import org.example.project.BatchInsertResult;
+import org.example.project.CircuitBreaker;
+import org.example.project.ConnectionPool;
 import org.example.project.DatabaseManager;
+import org.example.project.ExpensePage;
+import org.example.project.ExpenseQuery;
+import org.example.project.NewExpense;
+import org.example.project.TtlCache;
 import org.example.project.dto.ApiDTOs.*;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,7 +25,7 @@ public class ExpenseService {
     private final DatabaseManager databaseManager;
 
     public ExpenseService() {
-        this.databaseManager = new DatabaseManager();
+        this.databaseManager = DatabaseManager.getInstance();
     }
 
     public ExpenseService(DatabaseManager databaseManager) {
@@ -45,24 +55,12 @@ public class ExpenseService {
         }
     }
 
-    public List<String> getAllExpenses() throws SQLException {
-        return databaseManager.getAllExpenses();
-    }
-
-    public List<String> getExpensesByCategory(String categoryName) throws SQLException {
-        return databaseManager.getExpensesByCategory(categoryName);
+    public ExpensePage findExpenses(ExpenseQuery query) throws SQLException {
+        return databaseManager.findExpenses(query);
     }
 
     public ExpenseResponse addExpense(ExpenseRequest request) throws Exception {
-        if (request.getCategoryName() == null || request.getCategoryName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Category name is required");
-        }
-        if (request.getAmount() <= 0) {
-            throw new IllegalArgumentException("Amount must be positive");
-        }
-        if (request.getCurrency() == null || request.getCurrency().trim().isEmpty()) {
-            throw new IllegalArgumentException("Currency is required");
-        }
+        validateExpense(request);
 
         databaseManager.addExpense(
                 request.getCategoryName(),
@@ -75,6 +73,44 @@ public class ExpenseService {
         return new ExpenseResponse("Expense added successfully");
     }
 
+    public BatchExpenseResponse addExpenses(List<ExpenseRequest> requests) throws SQLException {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one expense is required");
+        }
+
+        List<BatchExpenseResponse.RowError> errors = new ArrayList<>();
+        List<NewExpense> validExpenses = new ArrayList<>();
+        List<Integer> rowIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ExpenseRequest request = requests.get(i);
+            try {
+                validateExpense(request);
+                validExpenses.add(new NewExpense(
+                        request.getCategoryName(),
+                        request.getAmount(),
+                        request.getTransactionDate(),
+                        request.getExpenseDate(),
+                        request.getCurrency()
+                ));
+                rowIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                errors.add(new BatchExpenseResponse.RowError(i, e.getMessage()));
+            }
+        }
+
+        int inserted = 0;
+        if (!validExpenses.isEmpty()) {
+            BatchInsertResult result = databaseManager.addExpenses(validExpenses);
+            inserted = result.inserted();
+            result.errors().forEach((index, message) ->
+                    errors.add(new BatchExpenseResponse.RowError(rowIndexes.get(index), message)));
+        }
+
+        errors.sort(Comparator.comparingInt(BatchExpenseResponse.RowError::getIndex));
+        return new BatchExpenseResponse(requests.size(), inserted, errors);
+    }
+
     public ExpenseResponse deleteExpense(int expenseId) throws SQLException {
         boolean success = databaseManager.deleteExpense(expenseId);
         
@@ -86,18 +122,15 @@ public class ExpenseService {
     }
 
     public ReportResponse generateReport() throws SQLException {
-        double totalExpenses = databaseManager.getTotalExpenses();
-        List<String> categories = databaseManager.getCategories();
-
-        List<ReportResponse.CategoryBreakdown> breakdowns = categories.stream()
-                .map(category -> {
-                    try {
-                        double categoryTotal = databaseManager.getTotalExpensesByCategory(category);
-                        double percentage = totalExpenses > 0 ? (categoryTotal / totalExpenses) * 100 : 0;
-                        return new ReportResponse.CategoryBreakdown(category, categoryTotal, percentage);
-                    } catch (SQLException e) {
-                        throw new RuntimeException("Error calculating category breakdown", e);
-                    }
+        Map<String, Double> categoryTotals = databaseManager.getCategoryTotals();
+        double totalExpenses = categoryTotals.values().stream()
+                .mapToDouble(Double::doubleValue)
+                .sum();
+
+        List<ReportResponse.CategoryBreakdown> breakdowns = categoryTotals.entrySet().stream()
+                .map(entry -> {
+                    double percentage = totalExpenses > 0 ? (entry.getValue() / totalExpenses) * 100 : 0;
+                    return new ReportResponse.CategoryBreakdown(entry.getKey(), entry.getValue(), percentage);
                 })
                 .collect(Collectors.toList());
 
@@ -111,4 +144,43 @@ public class ExpenseService {
     public double getTotalExpenses() throws SQLException {
         return databaseManager.getTotalExpenses();
     }
+
+    public String getDataVersion() {
+        return databaseManager.getDataVersion();
+    }
+
+    public ConnectionPool.Metrics getPoolMetrics() {
+        return databaseManager.getPoolMetrics();
+    }
+
+    public TtlCache.Metrics getRateCacheMetrics() {
+        return ApiManager.getCacheMetrics();
+    }
+
+    public CircuitBreaker.State getRateCircuitState() {
+        return ApiManager.getCircuitState();
+    }
+
+    public int rebuildCategoryTotals() throws SQLException {
+        return databaseManager.rebuildCategoryTotals();
+    }
+
+    public List<String> verifyCategoryTotals() throws SQLException {
+        return databaseManager.verifyCategoryTotals();
+    }
+
+    static void validateExpense(ExpenseRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Expense is required");
+        }
+        if (request.getCategoryName() == null || request.getCategoryName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Category name is required");
+        }
+        if (request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (request.getCurrency() == null || request.getCurrency().trim().isEmpty()) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.example.project.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.project.ApiManager;
+import org.example.project.AppProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches the latest rates (which records them in the rate history) and rebuilds the
+ * prediction snapshot at startup and then every
+ * {@code expenses.predictions.refresh-interval-seconds}, so API reads never wait on
+ * the rate provider.
+ */
+@Component
+public class ForecastRefreshScheduler {
+
+    @Autowired
+    private CurrencyPredictionService predictionService;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "forecast-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        long intervalSeconds = Long.parseLong(
+                AppProperties.load().getProperty("expenses.predictions.refresh-interval-seconds", "1800"));
+        executor.scheduleWithFixedDelay(this::refreshQuietly, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            ApiManager.getRateSnapshot();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        try {
+            predictionService.refresh();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.project.service;
+
+import org.example.project.CurrencyForecast;
+import org.example.project.dto.ApiDTOs.CurrencyPredictionResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable, versioned set of predictions for every supported currency. A new
+ * snapshot is built off to the side and swapped in whole, so readers never see a mix
+ * of two refreshes.
+ */
+public class ForecastSnapshot {
+    private final long version;
+    private final Instant computedAt;
+    private final List<CurrencyPredictionResponse> predictions;
+    private final Map<String, CurrencyPredictionResponse> predictionsByCurrency;
+    private final Map<String, CurrencyForecast> forecasts;
+
+    public ForecastSnapshot(long version, Instant computedAt, List<CurrencyPredictionResponse> predictions,
+                            Map<String, CurrencyForecast> forecasts) {
+        this.version = version;
+        this.computedAt = computedAt;
+        this.predictions = List.copyOf(predictions);
+        this.forecasts = Map.copyOf(forecasts);
+
+        Map<String, CurrencyPredictionResponse> byCurrency = new LinkedHashMap<>();
+        for (CurrencyPredictionResponse prediction : predictions) {
+            byCurrency.put(prediction.getCurrency(), prediction);
+        }
+        this.predictionsByCurrency = byCurrency;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The version qualified by the build time, so it is unique across restarts, which
+     * reset the version counter.
+     */
+    public String getETagVersion() {
+        return "forecast-" + version + "-" + Long.toString(computedAt.toEpochMilli(), 36);
+    }
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public Duration getAge() {
+        return Duration.between(computedAt, Instant.now());
+    }
+
+    public List<CurrencyPredictionResponse> getPredictions() {
+        return predictions;
+    }
+
+    /**
+     * The cached prediction for {@code currency}, or {@code null} if the last refresh
+     * did not produce one.
+     */
+    public CurrencyPredictionResponse getPrediction(String currency) {
+        CurrencyPredictionResponse prediction = predictionsByCurrency.get(currency);
+        return prediction != null && CurrencyPredictionResponse.STATUS_OK.equals(prediction.getStatus())
+                ? prediction
+                : null;
+    }
+
+    public CurrencyForecast getForecast(String currency) {
+        return forecasts.get(currency);
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.project.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.example.project.AppProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process and aggregates
+ * it by call site, so it is visible from the diagnostics API whether a virtual thread
+ * blocked while pinned to its carrier (inside {@code synchronized} or a native frame,
+ * such as the SQLite JDBC driver) for longer than
+ * {@code expenses.diagnostics.pinned-threads.threshold-ms}. The call site is the first
+ * frame outside the JDK, falling back to the top frame.
+ */
+@Component
+public class PinnedThreadMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 50;
+    private static final int MAX_REPORTED_SITES = 10;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final AtomicLong events = new AtomicLong();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final ConcurrentMap<String, SiteCounter> sites = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor() {
+        this(AppProperties.load());
+    }
+
+    private PinnedThreadMonitor(Properties properties) {
+        this(Boolean.parseBoolean(properties.getProperty("expenses.diagnostics.pinned-threads.enabled", "true")),
+                Duration.ofMillis(Long.parseLong(
+                        properties.getProperty("expenses.diagnostics.pinned-threads.threshold-ms", "20"))));
+    }
+
+    public PinnedThreadMonitor(boolean enabled, Duration threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    public Report getReport() {
+        List<Site> top = new ArrayList<>(sites.size());
+        sites.forEach((frame, counter) -> top.add(counter.toSite(frame)));
+        top.sort(Comparator.comparingDouble(Site::totalMillis).reversed());
+        return new Report(
+                enabled,
+                threshold.toMillis(),
+                events.get(),
+                totalNanos.sum() / 1_000_000.0,
+                maxNanos.get() / 1_000_000.0,
+                top.subList(0, Math.min(top.size(), MAX_REPORTED_SITES))
+        );
+    }
+
+    private void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        events.incrementAndGet();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+
+        String frame = callSite(event.getStackTrace());
+        SiteCounter counter = sites.get(frame);
+        if (counter == null && sites.size() < MAX_SITES) {
+            counter = sites.computeIfAbsent(frame, key -> new SiteCounter());
+        }
+        if (counter != null) {
+            counter.count.increment();
+            counter.nanos.add(nanos);
+        }
+    }
+
+    private static String callSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static final class SiteCounter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Site toSite(String frame) {
+            return new Site(frame, count.sum(), nanos.sum() / 1_000_000.0);
+        }
+    }
+
+    public record Site(String frame, long count, double totalMillis) {
+    }
+
+    public record Report(boolean enabled, long thresholdMillis, long events, double totalMillis, double maxMillis,
+                         List<Site> sites) {
+    }
+}
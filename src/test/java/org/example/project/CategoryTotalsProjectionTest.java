@@ -0,0 +1,88 @@
+package org.example.project;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTotalsProjectionTest {
+
+    private static final Map<String, Double> USD = Map.of("USD", 1.0);
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+    private DatabaseManager databaseManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool(TempDatabase.config(tempDir));
+        databaseManager = new DatabaseManager(pool);
+        databaseManager.addCategory("Food");
+        databaseManager.addCategory("Travel");
+        databaseManager.addExpenses(List.of(
+                expense("Food", 10.0),
+                expense("Food", 5.0),
+                expense("Food", 20.0),
+                expense("Travel", 7.0)
+        ), USD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testInsert_MaintainsTotals() throws Exception {
+        assertEquals(List.of(), databaseManager.verifyCategoryTotals());
+        assertEquals(35.0, databaseManager.getTotalExpensesByCategory("Food"), 1e-9);
+        assertEquals(42.0, databaseManager.getTotalExpenses(), 1e-9);
+    }
+
+    @Test
+    void testDelete_RecomputesMinAndMax() throws Exception {
+        assertTrue(databaseManager.deleteExpense(2));
+        assertTrue(databaseManager.deleteExpense(3));
+
+        assertEquals(List.of(), databaseManager.verifyCategoryTotals());
+        assertEquals(10.0, databaseManager.getTotalExpensesByCategory("Food"), 1e-9);
+    }
+
+    @Test
+    void testDelete_LastExpenseEmptiesCategory() throws Exception {
+        assertTrue(databaseManager.deleteExpense(4));
+
+        assertEquals(List.of(), databaseManager.verifyCategoryTotals());
+        assertEquals(0.0, databaseManager.getTotalExpensesByCategory("Travel"), 1e-9);
+
+        databaseManager.addExpenses(List.of(expense("Travel", 3.0)), USD);
+        assertEquals(List.of(), databaseManager.verifyCategoryTotals());
+    }
+
+    @Test
+    void testRebuild_RepairsDriftedTotals() throws Exception {
+        try (ConnectionPool.Lease lease = pool.writer(); Statement statement = lease.connection().createStatement()) {
+            statement.executeUpdate("UPDATE category_totals SET total = 999, max_amount = 1 "
+                    + "WHERE category_id = (SELECT id FROM categories WHERE name = 'Food')");
+        }
+        assertEquals(List.of("Food"), databaseManager.verifyCategoryTotals());
+
+        assertEquals(2, databaseManager.rebuildCategoryTotals());
+
+        assertEquals(List.of(), databaseManager.verifyCategoryTotals());
+        assertEquals(35.0, databaseManager.getTotalExpensesByCategory("Food"), 1e-9);
+    }
+
+    private static NewExpense expense(String category, double amount) {
+        return new NewExpense(category, amount, "2024-01-01", "2024-01-01", "USD");
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.project;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testReader_ReusesReleasedConnection() throws Exception {
+        pool = new ConnectionPool(config(2, 1000));
+
+        Connection first;
+        try (ConnectionPool.Lease lease = pool.reader()) {
+            first = lease.connection();
+        }
+        try (ConnectionPool.Lease lease = pool.reader()) {
+            assertSame(first, lease.connection());
+        }
+
+        ConnectionPool.Metrics metrics = pool.getMetrics();
+        assertEquals(1, metrics.openReaders());
+        assertEquals(1, metrics.idleReaders());
+        assertEquals(0, metrics.activeReaders());
+    }
+
+    @Test
+    void testRelease_RollsBackUncommittedWrite() throws Exception {
+        pool = new ConnectionPool(config(1, 1000));
+        try (ConnectionPool.Lease lease = pool.writer(); Statement statement = lease.connection().createStatement()) {
+            statement.execute("CREATE TABLE items (id INTEGER PRIMARY KEY)");
+        }
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            lease.connection().setAutoCommit(false);
+            try (Statement statement = lease.connection().createStatement()) {
+                statement.execute("INSERT INTO items (id) VALUES (1)");
+            }
+        }
+
+        try (ConnectionPool.Lease lease = pool.writer()) {
+            assertTrue(lease.connection().getAutoCommit());
+        }
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM items")) {
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void testReader_TimesOutWhenEveryReaderIsLeased() throws Exception {
+        pool = new ConnectionPool(config(1, 50));
+
+        try (ConnectionPool.Lease held = pool.reader()) {
+            SQLException e = assertThrows(SQLException.class, pool::reader);
+            assertTrue(e.getMessage().contains("Timed out"));
+        }
+
+        assertEquals(1, pool.getMetrics().timeouts());
+        try (ConnectionPool.Lease lease = pool.reader()) {
+            assertNotNull(lease.connection());
+        }
+    }
+
+    @Test
+    void testWriter_RejectsWritersBeyondPendingLimit() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("expenses.storage.pool.max-pending-writers", "1");
+        pool = new ConnectionPool(StorageConfig.fromProperties(properties)) {
+            @Override
+            protected Connection open() {
+                return mock(Connection.class);
+            }
+        };
+
+        try (ConnectionPool.Lease held = pool.writer()) {
+            assertThrows(SQLTransientConnectionException.class, pool::writer);
+            assertEquals(1, pool.getMetrics().pendingWriters());
+        }
+
+        try (ConnectionPool.Lease next = pool.writer()) {
+            assertNotNull(next.connection());
+        }
+        assertEquals(0, pool.getMetrics().pendingWriters());
+        assertEquals(1, pool.getMetrics().rejectedWriters());
+    }
+
+    private StorageConfig config(int readers, long acquireTimeoutMillis) {
+        Properties properties = new Properties();
+        properties.setProperty("spring.datasource.url", "jdbc:sqlite:" + tempDir.resolve("pool.db"));
+        properties.setProperty("expenses.storage.pool.readers", String.valueOf(readers));
+        properties.setProperty("expenses.storage.pool.acquire-timeout-ms", String.valueOf(acquireTimeoutMillis));
+        return StorageConfig.fromProperties(properties);
+    }
+}
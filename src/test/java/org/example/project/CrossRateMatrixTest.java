@@ -0,0 +1,48 @@
+package org.example.project;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateMatrixTest {
+
+    private final RateSnapshot snapshot = RateSnapshot.fromJson("USD",
+            new JSONObject(Map.of("EUR", 0.9, "GBP", 0.8, "JPY", 150.0)), Instant.EPOCH);
+
+    @Test
+    void testOf_IncludesBaseCurrency() {
+        CrossRateMatrix matrix = CrossRateMatrix.of(snapshot);
+
+        assertEquals(List.of("EUR", "GBP", "JPY", "USD"), matrix.getCurrencies());
+        assertEquals(4, matrix.size());
+        assertTrue(matrix.contains("USD"));
+    }
+
+    @Test
+    void testRate_AnyPair() {
+        CrossRateMatrix matrix = snapshot.getCrossRates();
+
+        assertEquals(150.0 / 0.9, matrix.rate("EUR", "JPY"), 1e-9);
+        assertEquals(0.9, matrix.rate("USD", "EUR"), 1e-12);
+        assertEquals(1 / 150.0, matrix.rate("JPY", "USD"), 1e-12);
+        assertEquals(1.0, matrix.rate("GBP", "GBP"));
+        assertEquals(matrix.rate("EUR", "GBP"), snapshot.crossRate("EUR", "GBP"));
+    }
+
+    @Test
+    void testRow_MatchesCurrencyOrder() {
+        double[] row = snapshot.getCrossRates().row("USD");
+
+        assertArrayEquals(new double[]{0.9, 0.8, 150.0, 1.0}, row, 1e-12);
+    }
+
+    @Test
+    void testRate_UnknownCurrency() {
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getCrossRates().rate("EUR", "XYZ"));
+    }
+}
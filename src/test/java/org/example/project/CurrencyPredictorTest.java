@@ -0,0 +1,128 @@
+package org.example.project;
+
+import org.example.project.forecast.ForecastModelRegistry;
+import org.example.project.forecast.LeastSquaresModel;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyPredictorTest {
+
+    @Mock
+    private RateHistoryStore rateHistory;
+
+    private CurrencyPredictor predictor;
+
+    @BeforeEach
+    void setUp() {
+        predictor = new CurrencyPredictor(rateHistory, ForecastModelRegistry.withBuiltIns(), new Properties());
+    }
+
+    @Test
+    void testGetPairHistory_AlignsAndDividesBaseSeries() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(rateHistory.readDaily(eq("EUR"), any(), any()))
+                .thenReturn(RateSeries.of(today.minusDays(3), 0.80, 0.90, 1.00, 1.00));
+        when(rateHistory.readDaily(eq("JPY"), any(), any()))
+                .thenReturn(RateSeries.of(today.minusDays(2), 135.0, 150.0, 160.0));
+
+        RateSeries pair = predictor.getPairHistory("EUR", "JPY", 30);
+
+        assertEquals(today.minusDays(2).toEpochDay(), pair.startEpochDay());
+        assertEquals(3, pair.size());
+        assertEquals(150.0, pair.get(0), 1e-9);
+        assertEquals(150.0, pair.get(1), 1e-9);
+        assertEquals(160.0, pair.get(2), 1e-9);
+    }
+
+    @Test
+    void testPredictPair_UsdQuote() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(rateHistory.readDaily(eq("EUR"), any(), any()))
+                .thenReturn(RateSeries.of(today.minusDays(1), 0.5, 0.5));
+
+        CurrencyForecast forecast = predictor.predictPair("EUR", "USD", "linear", 30, 14);
+
+        assertEquals("EUR/USD", forecast.getCurrency());
+        assertEquals(2.0, forecast.getCurrentRate(), 1e-12);
+        assertEquals(14, forecast.getPredictions().size());
+        assertEquals("Stable - No significant change expected", forecast.getRecommendation());
+    }
+
+    @Test
+    void testPredict_ConcurrentRequestsMatchBatchFit() throws Exception {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        double[] values = new double[21];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1.0 + 0.01 * i + 0.05 * Math.sin(i);
+        }
+        // Alternating between a history ending yesterday and one ending today makes the
+        // shared regression advance by a day and then rebuild, over and over.
+        RateSeries endingYesterday = RateSeries.of(today.minusDays(20), Arrays.copyOf(values, 20));
+        RateSeries endingToday = RateSeries.of(today.minusDays(20), values);
+        AtomicInteger calls = new AtomicInteger();
+        when(rateHistory.readDaily(eq("EUR"), any(), any()))
+                .thenAnswer(invocation -> calls.getAndIncrement() % 2 == 0 ? endingYesterday : endingToday);
+
+        LeastSquaresModel batch = new LeastSquaresModel("windowed", 10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        CurrencyForecast forecast = predictor.predict("EUR", "windowed", 30, 7);
+                        RateSeries expected = batch.forecast(forecast.getHistoricalRates(), 7);
+                        for (int day = 0; day < 7; day++) {
+                            assertEquals(expected.get(day), forecast.getPredictions().get(day), 1e-9);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetPairHistory_SameCurrency() {
+        assertThrows(IllegalArgumentException.class, () -> predictor.getPairHistory("EUR", "EUR", 30));
+    }
+
+    @Test
+    void testAddSupportedCurrency_RequiresUpstreamCurrency() {
+        RateSnapshot snapshot = RateSnapshot.fromJson("USD",
+                new JSONObject(Map.of("CHF", 0.88)), Instant.EPOCH);
+
+        assertTrue(predictor.addSupportedCurrency("CHF", snapshot));
+        assertFalse(predictor.addSupportedCurrency("CHF", snapshot));
+        assertTrue(predictor.getSupportedCurrencies().contains("CHF"));
+        assertThrows(IllegalArgumentException.class, () -> predictor.addSupportedCurrency("XYZ", snapshot));
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.project;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseKeysetPagingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        databaseManager = TempDatabase.open(tempDir);
+        databaseManager.addCategory("Food");
+        databaseManager.addCategory("Travel");
+        databaseManager.addExpenses(List.of(
+                expense("Food", 10.0, "2024-01-01"),
+                expense("Travel", 200.0, "2024-01-05"),
+                expense("Food", 15.5, "2024-02-10"),
+                expense("Food", 40.0, "2024-03-01"),
+                expense("Travel", 80.0, "2024-03-15"),
+                expense("Food", 5.0, "2024-04-01"),
+                expense("Travel", 120.0, "2024-04-20")
+        ), Map.of("USD", 1.0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testFindExpenses_PagesThroughAllRowsInIdOrder() throws Exception {
+        ExpensePage first = databaseManager.findExpenses(ExpenseQuery.firstPage(3));
+        assertEquals(List.of(1, 2, 3), ids(first));
+        assertEquals(3, first.nextAfter());
+
+        ExpensePage second = databaseManager.findExpenses(query(null, first.nextAfter(), 3, null, null, null, null));
+        assertEquals(List.of(4, 5, 6), ids(second));
+        assertEquals(6, second.nextAfter());
+
+        ExpensePage last = databaseManager.findExpenses(query(null, second.nextAfter(), 3, null, null, null, null));
+        assertEquals(List.of(7), ids(last));
+        assertNull(last.nextAfter());
+    }
+
+    @Test
+    void testFindExpenses_ExactlyFullPageHasNoNextPage() throws Exception {
+        ExpensePage page = databaseManager.findExpenses(ExpenseQuery.firstPage(7));
+
+        assertEquals(7, page.items().size());
+        assertNull(page.nextAfter());
+    }
+
+    @Test
+    void testFindExpenses_FiltersByCategoryAcrossPages() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        Integer after = 0;
+        while (after != null) {
+            ExpensePage page = databaseManager.findExpenses(query("Food", after, 2, null, null, null, null));
+            page.items().forEach(row -> assertEquals("Food", row.category()));
+            ids.addAll(ids(page));
+            after = page.nextAfter();
+        }
+
+        assertEquals(List.of(1, 3, 4, 6), ids);
+        assertEquals(List.of(), ids(databaseManager.findExpenses(query("Rent", 0, 10, null, null, null, null))));
+    }
+
+    @Test
+    void testFindExpenses_FiltersByInclusiveDateRange() throws Exception {
+        ExpensePage page = databaseManager.findExpenses(query(null, 0, 10, "2024-02-10", "2024-03-15", null, null));
+
+        assertEquals(List.of(3, 4, 5), ids(page));
+    }
+
+    @Test
+    void testFindExpenses_FiltersByInclusiveAmountRange() throws Exception {
+        ExpensePage page = databaseManager.findExpenses(query(null, 0, 10, null, null, 15.5, 80.0));
+
+        assertEquals(List.of(3, 4, 5), ids(page));
+        assertEquals(1550, page.items().get(0).amountCents());
+    }
+
+    @Test
+    void testFindExpenses_CombinesFilters() throws Exception {
+        ExpensePage page = databaseManager.findExpenses(query("Travel", 0, 10, "2024-03-01", null, null, 150.0));
+
+        assertEquals(List.of(5, 7), ids(page));
+    }
+
+    @Test
+    void testForEachExpense_ReleasesReaderBetweenChunks() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        List<Integer> activeReaders = new ArrayList<>();
+
+        long rows = databaseManager.forEachExpense(3, row -> {
+            ids.add(row.id());
+            activeReaders.add(databaseManager.getPoolMetrics().activeReaders());
+        });
+
+        assertEquals(7, rows);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), ids);
+        assertTrue(activeReaders.stream().allMatch(active -> active == 0));
+    }
+
+    @Test
+    void testForEachExpense_ChunkBoundaryAtEndOfTable() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+
+        assertEquals(7, databaseManager.forEachExpense(7, row -> ids.add(row.id())));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), ids);
+    }
+
+    private static ExpenseQuery query(String category, int afterId, int limit, String fromDate, String toDate,
+                                      Double minAmount, Double maxAmount) {
+        return new ExpenseQuery(category, afterId, limit, fromDate, toDate, minAmount, maxAmount);
+    }
+
+    private static List<Integer> ids(ExpensePage page) {
+        return page.items().stream().map(ExpenseRow::id).toList();
+    }
+
+    private static NewExpense expense(String category, double amount, String expenseDate) {
+        return new NewExpense(category, amount, expenseDate, expenseDate, "USD");
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.project;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryStoreTest {
+
+    private static final LocalDate DAY_0 = LocalDate.of(2026, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+    private DatabaseManager databaseManager;
+    private RateHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(TempDatabase.config(tempDir));
+        databaseManager = new DatabaseManager(pool);
+        store = new RateHistoryStore(pool,
+                new RateHistoryStore.RetentionPolicy(Duration.ofDays(7), Duration.ofDays(30)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testAppend_IgnoresRepeatedObservation() throws Exception {
+        RateSnapshot snapshot = snapshot(0, 9, 0.9, 0.8);
+
+        assertEquals(2, store.append(snapshot));
+        assertEquals(0, store.append(snapshot));
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    void testReadDaily_KeepsLastRateOfEachDayAndCarriesGapsForward() throws Exception {
+        store.append(snapshot(0, 9, 0.90, 0.80));
+        store.append(snapshot(0, 17, 0.91, 0.81));
+        store.append(snapshot(2, 9, 0.92, 0.82));
+        store.append(snapshot(4, 9, 0.94, 0.84));
+
+        RateSeries series = store.readDaily("EUR", DAY_0.minusDays(1), DAY_0.plusDays(5));
+
+        assertEquals(RateSeries.of(DAY_0, 0.91, 0.91, 0.92, 0.92, 0.94), series);
+    }
+
+    @Test
+    void testReadDaily_NoObservations() throws Exception {
+        store.append(snapshot(0, 9, 0.9, 0.8));
+
+        assertTrue(store.readDaily("EUR", DAY_0.plusDays(1), DAY_0.plusDays(3)).isEmpty());
+        assertTrue(store.readDaily("JPY", DAY_0, DAY_0.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    void testCompact_DownsamplesOldDaysAndDropsExpiredOnes() throws Exception {
+        store.append(snapshot(0, 9, 0.80, 0.70));
+        store.append(snapshot(20, 9, 0.90, 0.80));
+        store.append(snapshot(20, 12, 0.91, 0.81));
+        store.append(snapshot(20, 15, 0.92, 0.82));
+        store.append(snapshot(38, 9, 0.93, 0.83));
+        store.append(snapshot(38, 12, 0.94, 0.84));
+
+        int removed = store.compact(at(40, 0));
+
+        // Day 0 is past the 30-day retention (2 rows); day 20 is past the 7-day raw
+        // retention and keeps only its last observation (4 rows); day 38 is untouched.
+        assertEquals(6, removed);
+        assertEquals(6, countRows());
+        assertEquals(RateSeries.of(DAY_0.plusDays(20), 0.92), store.readDaily("EUR", DAY_0, DAY_0.plusDays(20)));
+        assertEquals(0, store.compact(at(40, 0)));
+    }
+
+    private int countRows() throws Exception {
+        try (ConnectionPool.Lease lease = pool.reader();
+             Statement statement = lease.connection().createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM rate_history")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static RateSnapshot snapshot(int day, int hour, double eur, double gbp) {
+        return RateSnapshot.fromJson("USD", new JSONObject(Map.of("EUR", eur, "GBP", gbp)), at(day, hour));
+    }
+
+    private static Instant at(int day, int hour) {
+        return Instant.ofEpochSecond(DAY_0.plusDays(day).toEpochDay() * 86_400 + hour * 3_600L);
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.project;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateProviderClientTest {
+
+    private static final String RATES = StubRateServer.ratesJson("USD", Map.of("EUR", 0.9, "JPY", 150.0));
+
+    private StubRateServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubRateServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private RateProviderClient client(int maxAttempts, int failureThreshold, Duration openDuration) {
+        return new RateProviderClient(server.uri(), new RateProviderClient.Settings(
+                Duration.ofSeconds(1), Duration.ofMillis(300), maxAttempts, Duration.ofMillis(1),
+                failureThreshold, openDuration));
+    }
+
+    @Test
+    void testFetch_ParsesSnapshot() throws Exception {
+        server.enqueue(200, RATES);
+
+        RateSnapshot snapshot = client(3, 5, Duration.ofSeconds(30)).fetch("USD");
+
+        assertEquals("USD", snapshot.getBase());
+        assertEquals(150.0, snapshot.rate("JPY"));
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    void testFetch_RetriesServerErrors() throws Exception {
+        server.enqueue(503, "{}");
+        server.enqueue(500, "{}");
+        server.enqueue(200, RATES);
+
+        RateSnapshot snapshot = client(3, 5, Duration.ofSeconds(30)).fetch("USD");
+
+        assertEquals(0.9, snapshot.rate("EUR"));
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    void testFetch_DoesNotRetryClientErrors() {
+        server.enqueue(404, "{}");
+
+        RateProviderException e = assertThrows(RateProviderException.class,
+                () -> client(3, 5, Duration.ofSeconds(30)).fetch("USD"));
+
+        assertFalse(e.isRetryable());
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    void testFetch_TimesOutSlowResponses() {
+        server.enqueueDelayed(Duration.ofSeconds(2), RATES);
+
+        long started = System.nanoTime();
+        RateProviderException e = assertThrows(RateProviderException.class,
+                () -> client(1, 5, Duration.ofSeconds(30)).fetch("USD"));
+
+        assertTrue(e.isRetryable());
+        assertTrue(System.nanoTime() - started < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void testCircuit_CountsOneFailurePerFetch() {
+        RateProviderClient client = client(3, 2, Duration.ofSeconds(30));
+        server.setDefault(503, "{}");
+
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertEquals(3, server.requestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+    }
+
+    @Test
+    void testCircuit_IgnoresClientErrorsAndMalformedResponses() {
+        RateProviderClient client = client(3, 1, Duration.ofSeconds(30));
+        server.enqueue(404, "{}");
+        server.enqueue(200, "{\"base\":\"USD\"}");
+
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+
+        assertEquals(2, server.requestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void testCircuit_OpensAfterFailuresAndRecovers() throws Exception {
+        RateProviderClient client = client(1, 2, Duration.ofMillis(200));
+        server.enqueue(200, RATES);
+        RateSnapshot first = client.fetch("USD");
+
+        server.setDefault(503, "{}");
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        int requestsWhileOpen = server.requestCount();
+        assertThrows(RateProviderException.class, () -> client.fetch("USD"));
+        assertEquals(requestsWhileOpen, server.requestCount());
+
+        Thread.sleep(250);
+        server.setDefault(200, RATES);
+        assertNotSame(first, client.fetch("USD"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.project;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotTest {
+
+    private final RateSnapshot snapshot = RateSnapshot.fromJson("USD",
+            new JSONObject(Map.of("USD", 1, "JPY", 150.0, "EUR", 0.9, "GBP", 0.8)), Instant.EPOCH);
+
+    @Test
+    void testFromJson_SortsCodesAndKeepsMetadata() {
+        assertEquals("USD", snapshot.getBase());
+        assertEquals(Instant.EPOCH, snapshot.getFetchedAt());
+        assertEquals(4, snapshot.size());
+        assertEquals(List.of("EUR", "GBP", "JPY", "USD"), snapshot.getCurrencies());
+        assertTrue(snapshot.contains("JPY"));
+        assertFalse(snapshot.contains("RON"));
+    }
+
+    @Test
+    void testRate_ReturnsUnitsPerBase() {
+        assertEquals(0.9, snapshot.rate("EUR"), 1e-12);
+        assertEquals(150.0, snapshot.rate("JPY"), 1e-12);
+        assertEquals(1.0, snapshot.rate("USD"));
+    }
+
+    @Test
+    void testRate_UnknownCurrency() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> snapshot.rate("RON"));
+        assertTrue(e.getMessage().contains("RON"));
+    }
+
+    @Test
+    void testCrossRate_DerivesFromTwoEntries() {
+        assertEquals(0.8 / 0.9, snapshot.crossRate("EUR", "GBP"), 1e-12);
+        assertEquals(1 / 150.0, snapshot.crossRate("JPY", "USD"), 1e-12);
+        assertEquals(1.0, snapshot.crossRate("RON", "RON"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.crossRate("EUR", "RON"));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.crossRate("RON", "EUR"));
+    }
+
+    @Test
+    void testFromJson_BaseMissingFromRates() {
+        RateSnapshot withoutBase = RateSnapshot.fromJson("USD", new JSONObject(Map.of("EUR", 0.9)), Instant.EPOCH);
+
+        assertEquals(1.0, withoutBase.rate("USD"));
+        assertEquals(1 / 0.9, withoutBase.crossRate("EUR", "USD"), 1e-12);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRegressionTest {
+
+    @Test
+    void testPredict_PerfectLine() {
+        SlidingWindowRegression regression = new SlidingWindowRegression(10);
+        for (int i = 0; i < 5; i++) {
+            regression.add(2.0 + 0.5 * i);
+        }
+
+        assertEquals(0.5, regression.slope(), 1e-12);
+        assertEquals(2.0, regression.intercept(), 1e-12);
+        assertEquals(2.0 + 0.5 * 5, regression.predict(1), 1e-12);
+    }
+
+    @Test
+    void testAdd_EvictsOldestWhenFull() {
+        SlidingWindowRegression regression = new SlidingWindowRegression(3);
+        regression.add(100.0);
+        regression.add(1.0);
+        regression.add(2.0);
+        regression.add(3.0);
+
+        assertEquals(3, regression.size());
+        assertEquals(1.0, regression.slope(), 1e-12);
+        assertEquals(1.0, regression.intercept(), 1e-12);
+        assertEquals(4.0, regression.predict(1), 1e-12);
+    }
+
+    @Test
+    void testUpdateLast_ReplacesNewestValue() {
+        SlidingWindowRegression regression = new SlidingWindowRegression(5);
+        regression.add(1.0);
+        regression.add(2.0);
+        regression.add(10.0);
+        regression.updateLast(3.0);
+
+        assertEquals(3.0, regression.last());
+        assertEquals(1.0, regression.slope(), 1e-12);
+    }
+
+    @Test
+    void testSlidingWindow_MatchesBatchFit() {
+        int capacity = 30;
+        SlidingWindowRegression regression = new SlidingWindowRegression(capacity);
+        ArrayDeque<Double> window = new ArrayDeque<>();
+        Random random = new Random(42);
+
+        for (int day = 0; day < 3000; day++) {
+            double rate = 1.1 + day * 0.0005 + random.nextGaussian() * 0.01;
+            regression.add(rate);
+            window.addLast(rate);
+            if (window.size() > capacity) {
+                window.removeFirst();
+            }
+
+            double[] values = window.stream().mapToDouble(Double::doubleValue).toArray();
+            SlidingWindowRegression batch = SlidingWindowRegression.of(
+                    RateSeries.of(LocalDate.ofEpochDay(day), values), capacity);
+            assertEquals(batch.predict(7), regression.predict(7), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.project;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for the exchange rate API. Responses are served from a queue in order,
+ * then {@link #setDefault(int, String) the default} once the queue is empty.
+ */
+class StubRateServer implements AutoCloseable {
+
+    record Response(int status, String body, Duration delay) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Queue<Response> responses = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Response defaultResponse = new Response(200, ratesJson("USD", Map.of("EUR", 0.9)), Duration.ZERO);
+
+    StubRateServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/latest/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/latest/");
+    }
+
+    int requestCount() {
+        return requests.get();
+    }
+
+    void enqueue(int status, String body) {
+        responses.add(new Response(status, body, Duration.ZERO));
+    }
+
+    void enqueueDelayed(Duration delay, String body) {
+        responses.add(new Response(200, body, delay));
+    }
+
+    void setDefault(int status, String body) {
+        defaultResponse = new Response(status, body, Duration.ZERO);
+    }
+
+    static String ratesJson(String base, Map<String, Double> rates) {
+        String entries = rates.entrySet().stream()
+                .map(entry -> "\"" + entry.getKey() + "\":" + entry.getValue())
+                .collect(Collectors.joining(","));
+        return "{\"base\":\"" + base + "\",\"rates\":{" + entries + "}}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Response response = responses.poll();
+        if (response == null) {
+            response = defaultResponse;
+        }
+
+        try {
+            if (!response.delay().isZero()) {
+                Thread.sleep(response.delay().toMillis());
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client gave up on this request.
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.project;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Storage settings for a throwaway SQLite file under a JUnit {@code @TempDir}, with
+ * the background WAL checkpoint disabled so tests control every write.
+ */
+final class TempDatabase {
+
+    private TempDatabase() {
+    }
+
+    static StorageConfig config(Path directory) {
+        Properties properties = new Properties();
+        properties.setProperty("spring.datasource.url", "jdbc:sqlite:" + directory.resolve("expenses.db"));
+        properties.setProperty("expenses.storage.checkpoint-interval-seconds", "0");
+        return StorageConfig.fromProperties(properties);
+    }
+
+    static DatabaseManager open(Path directory) {
+        return new DatabaseManager(new ConnectionPool(config(directory)));
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.project;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+    private static final Duration MAX_STALE = Duration.ofSeconds(20);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @Test
+    void testGet_ServesFreshEntryWithoutReloading() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(this::countingLoad, TTL, MAX_STALE, now::get);
+
+        assertEquals("USD-1", cache.get("USD"));
+        now.addAndGet(TTL.toNanos() - 1);
+        assertEquals("USD-1", cache.get("USD"));
+
+        assertEquals(1, loadCount.get());
+        assertEquals(1, cache.getMetrics().hits());
+        assertEquals(1, cache.getMetrics().misses());
+    }
+
+    @Test
+    void testGet_ServesStaleEntryWhileRefreshing() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(this::countingLoad, TTL, MAX_STALE, now::get);
+        cache.get("USD");
+
+        now.addAndGet(TTL.toNanos());
+        assertEquals("USD-1", cache.get("USD"));
+        assertEquals(1, cache.getMetrics().staleHits());
+
+        awaitValue(cache, "USD-2");
+        assertEquals("USD-2", cache.get("USD"));
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void testGet_ReloadsEntryPastMaxStale() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(this::countingLoad, TTL, MAX_STALE, now::get);
+        cache.get("USD");
+
+        now.addAndGet(TTL.toNanos() + MAX_STALE.toNanos());
+        assertEquals("USD-2", cache.get("USD"));
+
+        assertEquals(0, cache.getMetrics().staleHits());
+        assertEquals(2, cache.getMetrics().misses());
+    }
+
+    @Test
+    void testGet_FailedRefreshKeepsStaleEntryUntilMaxStale() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(key -> {
+            if (loadCount.get() > 0) {
+                throw new RateProviderException("Rate provider returned HTTP 503 for " + key, true);
+            }
+            return countingLoad(key);
+        }, TTL, MAX_STALE, now::get);
+        cache.get("USD");
+
+        now.addAndGet(TTL.toNanos());
+        assertEquals("USD-1", cache.get("USD"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.getMetrics().loadFailures() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, cache.getMetrics().loadFailures());
+
+        now.addAndGet(MAX_STALE.toNanos() - 1);
+        assertEquals("USD-1", cache.get("USD"));
+
+        now.addAndGet(1);
+        assertThrows(RateProviderException.class, () -> cache.get("USD"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        TtlCache<String, String> cache = new TtlCache<>(key -> {
+            release.await();
+            return countingLoad(key);
+        }, TTL, MAX_STALE, now::get);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("USD")));
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.getMetrics().coalescedLoads() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("USD-1", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loadCount.get());
+        assertEquals(1, cache.getMetrics().loads());
+        assertEquals(callers - 1, cache.getMetrics().coalescedLoads());
+    }
+
+    private String countingLoad(String key) {
+        return key + "-" + loadCount.incrementAndGet();
+    }
+
+    private static void awaitValue(TtlCache<String, String> cache, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(cache.getIfPresent("USD")) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, cache.getIfPresent("USD"));
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.project.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCachingTest {
+
+    @Test
+    void testMatches_ComparesAgainstEveryListedTag() {
+        String etag = HttpCaching.etag("abc-7");
+
+        assertEquals("\"abc-7\"", etag);
+        assertTrue(HttpCaching.matches("\"abc-7\"", etag));
+        assertTrue(HttpCaching.matches("\"abc-6\", W/\"abc-7\"", etag));
+        assertTrue(HttpCaching.matches("*", etag));
+        assertFalse(HttpCaching.matches("\"abc-6\"", etag));
+        assertFalse(HttpCaching.matches(null, etag));
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+import org.example.project.forecast.Backtester.BacktestReport;
+import org.example.project.forecast.Backtester.BacktestResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktesterTest {
+
+    private final Backtester backtester = new Backtester(ForecastModelRegistry.withBuiltIns(), new ForkJoinPool(2));
+
+    @Test
+    void testRun_ScoresEveryRollingOrigin() {
+        Map<String, RateSeries> histories = new LinkedHashMap<>();
+        histories.put("EUR", line(200, 0.001));
+        histories.put("GBP", line(100, -0.002));
+
+        BacktestReport report = backtester.run(histories, List.of("linear", "ewma"), 30, 7);
+
+        assertEquals(2, report.models().size());
+        assertEquals(4, report.currencies().size());
+
+        BacktestResult linear = report.models().get(0);
+        assertEquals("linear", linear.model());
+        assertEquals(BacktestResult.ALL_CURRENCIES, linear.currency());
+        assertEquals((200 - 30 - 7 + 1) + (100 - 30 - 7 + 1), linear.forecasts());
+        assertEquals(0.0, linear.mae(), 1e-9);
+        assertTrue(report.models().get(1).mape() > 0);
+    }
+
+    @Test
+    void testRun_ShortHistoryProducesNoForecasts() {
+        BacktestReport report = backtester.run(Map.of("JPY", line(20, 0.1)), List.of("holt"), 30, 7);
+
+        assertEquals(0, report.currencies().get(0).forecasts());
+        assertTrue(Double.isNaN(report.currencies().get(0).mae()));
+    }
+
+    @Test
+    void testRun_UnknownModel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> backtester.run(Map.of("EUR", line(60, 0.0)), List.of("arima"), 30, 7));
+    }
+
+    private static RateSeries line(int days, double slope) {
+        double[] values = new double[days];
+        for (int i = 0; i < days; i++) {
+            values[i] = 1.0 + slope * i;
+        }
+        return RateSeries.of(LocalDate.of(2025, 1, 1), values);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForecastModelRegistryTest {
+
+    private final ForecastModelRegistry registry = ForecastModelRegistry.withBuiltIns();
+
+    @Test
+    void testBuiltIns_Registered() {
+        assertEquals(List.of("ewma", "holt", "holt-winters", "linear", "windowed"), registry.names());
+        assertTrue(registry.contains("HOLT"));
+        assertThrows(IllegalArgumentException.class, () -> registry.get("arima"));
+    }
+
+    @Test
+    void testTrendModels_ExtrapolateStraightLine() {
+        RateSeries history = line(30);
+
+        for (String name : new String[]{"linear", "windowed", "holt"}) {
+            RateSeries forecast = registry.get(name).forecast(history, 7);
+            assertEquals(7, forecast.size(), name);
+            assertEquals(history.endEpochDay() + 1, forecast.startEpochDay(), name);
+            assertEquals(1.0 + 0.01 * 30, forecast.get(0), 1e-9, name);
+            assertEquals(1.0 + 0.01 * 36, forecast.last(), 1e-9, name);
+        }
+    }
+
+    @Test
+    void testEwma_ForecastsFlatLevel() {
+        RateSeries forecast = registry.get("ewma").forecast(line(30), 7);
+
+        assertEquals(forecast.get(0), forecast.last());
+        assertTrue(forecast.get(0) < 1.0 + 0.01 * 29);
+    }
+
+    @Test
+    void testHoltWinters_RepeatsWeeklyPattern() {
+        double[] values = new double[28];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 5 ? 1.05 : 1.0;
+        }
+
+        RateSeries forecast = registry.get("holt-winters").forecast(RateSeries.of(LocalDate.of(2026, 1, 1), values), 7);
+
+        for (int day = 0; day < 7; day++) {
+            double expected = (28 + day) % 7 == 5 ? 1.05 : 1.0;
+            assertEquals(expected, forecast.get(day), 1e-9);
+        }
+    }
+
+    @Test
+    void testHoltWinters_FallsBackToHoltOnShortHistory() {
+        RateSeries history = line(10);
+
+        assertEquals(registry.get("holt").forecast(history, 7), registry.get("holt-winters").forecast(history, 7));
+    }
+
+    private static RateSeries line(int days) {
+        double[] values = new double[days];
+        for (int i = 0; i < days; i++) {
+            values[i] = 1.0 + 0.01 * i;
+        }
+        return RateSeries.of(LocalDate.of(2026, 1, 1), values);
+    }
+}
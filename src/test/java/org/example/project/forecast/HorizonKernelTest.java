@@ -0,0 +1,70 @@
+package org.example.project.forecast;
+
+import org.example.project.RateSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HorizonKernelTest {
+
+    @Test
+    void testLinear_ScalarAndVectorAgree() throws Exception {
+        HorizonKernel scalar = new ScalarHorizonKernel();
+        HorizonKernel vector = vectorKernel();
+
+        for (int horizon : new int[]{1, 3, 7, 8, 90, 365}) {
+            double[] expected = new double[horizon];
+            double[] actual = new double[horizon];
+            scalar.linear(1.25, -0.003, 30, expected, horizon);
+            vector.linear(1.25, -0.003, 30, actual, horizon);
+
+            assertArrayEquals(expected, actual, 1e-12, "horizon " + horizon);
+            assertEquals(1.25 - 0.003 * (30 + horizon - 1), actual[horizon - 1], 1e-12);
+        }
+    }
+
+    @Test
+    void testAbsoluteErrors_ScalarAndVectorAgree() throws Exception {
+        Random random = new Random(7);
+        double[] forecast = new double[91];
+        double[] actual = new double[91];
+        for (int i = 0; i < forecast.length; i++) {
+            forecast[i] = 1 + random.nextGaussian() * 0.1;
+            actual[i] = i % 10 == 0 ? 0 : 1 + random.nextGaussian() * 0.1;
+        }
+
+        double[] expected = new ScalarHorizonKernel().absoluteErrors(forecast, actual, forecast.length);
+        double[] errors = vectorKernel().absoluteErrors(forecast, actual, forecast.length);
+
+        assertEquals(expected[0], errors[0], 1e-12);
+        assertEquals(expected[1], errors[1], 1e-12);
+    }
+
+    @Test
+    void testHoltForecast_CoversWholeHorizon() {
+        RateSeries history = RateSeries.of(LocalDate.of(2024, 1, 1), 1.0, 1.1, 1.2, 1.3, 1.4);
+
+        RateSeries forecast = new HoltModel(0.5, 0.3).forecast(history, 90);
+
+        assertEquals(90, forecast.size());
+        assertEquals(history.endEpochDay() + 1, forecast.startEpochDay());
+        assertEquals(1.5, forecast.get(0), 1e-9);
+        assertEquals(1.4 + 0.1 * 90, forecast.last(), 1e-9);
+    }
+
+    /**
+     * VectorHorizonKernel is only compiled by the vector Maven profile, which also adds
+     * the incubator module to the test JVM.
+     */
+    private static HorizonKernel vectorKernel() throws ReflectiveOperationException {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "Vector kernel is only built with -Pvector");
+        return (HorizonKernel) Class.forName("org.example.project.forecast.VectorHorizonKernel")
+                .getDeclaredConstructor()
+                .newInstance();
+    }
+}
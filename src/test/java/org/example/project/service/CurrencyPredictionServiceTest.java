@@ -1,6 +1,8 @@
 package org.example.project.service;
 
+import org.example.project.CurrencyForecast;
 import org.example.project.CurrencyPredictor;
+import org.example.project.RateSeries;
 import org.example.project.dto.ApiDTOs.CurrencyPredictionResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -41,11 +44,11 @@ class CurrencyPredictionServiceTest {
     @Test
     void testGetPredictionForCurrency_Success() throws Exception {
         String currency = "EUR";
-        Map<LocalDate, Double> historicalRates = createMockHistoricalRates();
-        Map<LocalDate, Double> futurePredictions = createMockFuturePredictions();
+        RateSeries historicalRates = createMockHistoricalRates();
+        RateSeries futurePredictions = createMockFuturePredictions();
 
-        when(currencyPredictor.getHistoricalRates(currency)).thenReturn(historicalRates);
-        when(currencyPredictor.predictFutureRates(currency)).thenReturn(futurePredictions);
+        when(currencyPredictor.predict(currency))
+                .thenReturn(CurrencyForecast.from(currency, historicalRates, futurePredictions));
 
         CurrencyPredictionResponse response = predictionService.getPredictionForCurrency(currency);
 
@@ -57,24 +60,19 @@ class CurrencyPredictionServiceTest {
         assertNotNull(response.getRecommendation());
         assertTrue(response.getRecommendation().contains("strengthen"));
 
-        verify(currencyPredictor, times(1)).getHistoricalRates(currency);
-        verify(currencyPredictor, times(1)).predictFutureRates(currency);
+        verify(currencyPredictor, times(1)).predict(currency);
+        verify(currencyPredictor, never()).getHistoricalRates(currency);
     }
 
     @Test
     void testGetPredictionForCurrency_StableRate() throws Exception {
         String currency = "GBP";
-        Map<LocalDate, Double> historicalRates = new LinkedHashMap<>();
-        historicalRates.put(LocalDate.now().minusDays(2), 0.80);
-        historicalRates.put(LocalDate.now().minusDays(1), 0.80);
-        historicalRates.put(LocalDate.now(), 0.80);
+        RateSeries historicalRates = RateSeries.of(LocalDate.now().minusDays(2), 0.80, 0.80, 0.80);
 
-        Map<LocalDate, Double> futurePredictions = new LinkedHashMap<>();
-        futurePredictions.put(LocalDate.now().plusDays(1), 0.801);
-        futurePredictions.put(LocalDate.now().plusDays(7), 0.802);
+        RateSeries futurePredictions = RateSeries.of(LocalDate.now().plusDays(1), 0.801, 0.801, 0.802);
 
-        when(currencyPredictor.getHistoricalRates(currency)).thenReturn(historicalRates);
-        when(currencyPredictor.predictFutureRates(currency)).thenReturn(futurePredictions);
+        when(currencyPredictor.predict(currency))
+                .thenReturn(CurrencyForecast.from(currency, historicalRates, futurePredictions));
 
         CurrencyPredictionResponse response = predictionService.getPredictionForCurrency(currency);
 
@@ -87,17 +85,12 @@ class CurrencyPredictionServiceTest {
     @Test
     void testGetPredictionForCurrency_WeakeningUSD() throws Exception {
         String currency = "JPY";
-        Map<LocalDate, Double> historicalRates = new LinkedHashMap<>();
-        historicalRates.put(LocalDate.now().minusDays(2), 140.0);
-        historicalRates.put(LocalDate.now().minusDays(1), 141.0);
-        historicalRates.put(LocalDate.now(), 142.0);
+        RateSeries historicalRates = RateSeries.of(LocalDate.now().minusDays(2), 140.0, 141.0, 142.0);
 
-        Map<LocalDate, Double> futurePredictions = new LinkedHashMap<>();
-        futurePredictions.put(LocalDate.now().plusDays(1), 143.0);
-        futurePredictions.put(LocalDate.now().plusDays(7), 138.0);
+        RateSeries futurePredictions = RateSeries.of(LocalDate.now().plusDays(1), 143.0, 140.0, 138.0);
 
-        when(currencyPredictor.getHistoricalRates(currency)).thenReturn(historicalRates);
-        when(currencyPredictor.predictFutureRates(currency)).thenReturn(futurePredictions);
+        when(currencyPredictor.predict(currency))
+                .thenReturn(CurrencyForecast.from(currency, historicalRates, futurePredictions));
 
         CurrencyPredictionResponse response = predictionService.getPredictionForCurrency(currency);
 
@@ -112,11 +105,11 @@ class CurrencyPredictionServiceTest {
         List<String> currencies = Arrays.asList("EUR", "GBP");
         when(currencyPredictor.getSupportedCurrencies()).thenReturn(currencies);
 
-        Map<LocalDate, Double> historicalRates = createMockHistoricalRates();
-        Map<LocalDate, Double> futurePredictions = createMockFuturePredictions();
+        RateSeries historicalRates = createMockHistoricalRates();
+        RateSeries futurePredictions = createMockFuturePredictions();
 
-        when(currencyPredictor.getHistoricalRates(anyString())).thenReturn(historicalRates);
-        when(currencyPredictor.predictFutureRates(anyString())).thenReturn(futurePredictions);
+        when(currencyPredictor.predict(anyString())).thenAnswer(invocation ->
+                CurrencyForecast.from(invocation.getArgument(0), historicalRates, futurePredictions));
 
         List<CurrencyPredictionResponse> predictions = predictionService.getAllPredictions();
 
@@ -124,28 +117,108 @@ class CurrencyPredictionServiceTest {
         assertEquals(2, predictions.size());
 
         verify(currencyPredictor, times(1)).getSupportedCurrencies();
-        verify(currencyPredictor, times(2)).getHistoricalRates(anyString());
-        verify(currencyPredictor, times(2)).predictFutureRates(anyString());
+        verify(currencyPredictor, times(2)).predict(anyString());
     }
 
     @Test
-    void testGetAllPredictions_ThrowsException() throws Exception {
-        List<String> currencies = Arrays.asList("EUR");
+    void testGetAllPredictions_ReportsFailedCurrencyAndKeepsOthers() throws Exception {
+        List<String> currencies = Arrays.asList("EUR", "GBP");
         when(currencyPredictor.getSupportedCurrencies()).thenReturn(currencies);
-        when(currencyPredictor.getHistoricalRates("EUR")).thenThrow(new Exception("API Error"));
+        when(currencyPredictor.predict("EUR")).thenThrow(new Exception("API Error"));
+        when(currencyPredictor.predict("GBP")).thenReturn(
+                CurrencyForecast.from("GBP", createMockHistoricalRates(), createMockFuturePredictions()));
+
+        List<CurrencyPredictionResponse> predictions = predictionService.getAllPredictions();
+
+        assertEquals(2, predictions.size());
+        assertEquals("EUR", predictions.get(0).getCurrency());
+        assertEquals(CurrencyPredictionResponse.STATUS_ERROR, predictions.get(0).getStatus());
+        assertTrue(predictions.get(0).getError().contains("API Error"));
+        assertEquals("GBP", predictions.get(1).getCurrency());
+        assertEquals(CurrencyPredictionResponse.STATUS_OK, predictions.get(1).getStatus());
+        assertNull(predictions.get(1).getError());
+    }
 
-        assertThrows(RuntimeException.class, () -> {
-            predictionService.getAllPredictions();
+    @Test
+    void testGetAllPredictions_TimesOutSlowCurrency() throws Exception {
+        predictionService = new CurrencyPredictionService(currencyPredictor, Duration.ofMillis(200));
+        List<String> currencies = Arrays.asList("EUR", "JPY");
+        when(currencyPredictor.getSupportedCurrencies()).thenReturn(currencies);
+        when(currencyPredictor.predict("EUR")).thenReturn(
+                CurrencyForecast.from("EUR", createMockHistoricalRates(), createMockFuturePredictions()));
+        when(currencyPredictor.predict("JPY")).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
         });
+
+        long start = System.nanoTime();
+        List<CurrencyPredictionResponse> predictions = predictionService.getAllPredictions();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(CurrencyPredictionResponse.STATUS_OK, predictions.get(0).getStatus());
+        assertEquals(CurrencyPredictionResponse.STATUS_TIMEOUT, predictions.get(1).getStatus());
+        assertTrue(elapsedMillis < 2_000);
+    }
+
+    @Test
+    void testRefresh_ServesReadsFromSnapshot() throws Exception {
+        when(currencyPredictor.getSupportedCurrencies()).thenReturn(Arrays.asList("EUR"));
+        when(currencyPredictor.predict("EUR")).thenReturn(
+                CurrencyForecast.from("EUR", createMockHistoricalRates(), createMockFuturePredictions()));
+
+        ForecastSnapshot first = predictionService.refresh();
+        CurrencyPredictionResponse response = predictionService.getPredictionForCurrency("EUR");
+        RateSeries historicalRates = predictionService.getHistoricalRates("EUR");
+        ForecastSnapshot second = predictionService.refresh();
+
+        assertEquals(1.15, response.getPredictedRate(), 0.001);
+        assertEquals(createMockHistoricalRates(), historicalRates);
+        assertTrue(second.getVersion() > first.getVersion());
+        assertSame(second, predictionService.getSnapshot());
+        verify(currencyPredictor, times(2)).predict("EUR");
+        verify(currencyPredictor, never()).getHistoricalRates("EUR");
+    }
+
+    @Test
+    void testRefresh_KeepsLastGoodPredictionForFailedCurrency() throws Exception {
+        when(currencyPredictor.getSupportedCurrencies()).thenReturn(Arrays.asList("EUR", "GBP"));
+        when(currencyPredictor.predict("EUR"))
+                .thenReturn(CurrencyForecast.from("EUR", createMockHistoricalRates(), createMockFuturePredictions()))
+                .thenThrow(new Exception("API Error"));
+        when(currencyPredictor.predict("GBP")).thenAnswer(invocation ->
+                CurrencyForecast.from("GBP", createMockHistoricalRates(), createMockFuturePredictions()));
+
+        ForecastSnapshot first = predictionService.refresh();
+        ForecastSnapshot second = predictionService.refresh();
+
+        assertTrue(second.getVersion() > first.getVersion());
+        assertSame(first.getPrediction("EUR"), second.getPrediction("EUR"));
+        assertSame(first.getForecast("EUR"), second.getForecast("EUR"));
+        assertEquals(CurrencyPredictionResponse.STATUS_OK, second.getPredictions().get(0).getStatus());
+    }
+
+    @Test
+    void testRefresh_KeepsPreviousSnapshotWhenEveryCurrencyFails() throws Exception {
+        when(currencyPredictor.getSupportedCurrencies()).thenReturn(Arrays.asList("EUR"));
+        when(currencyPredictor.predict("EUR"))
+                .thenReturn(CurrencyForecast.from("EUR", createMockHistoricalRates(), createMockFuturePredictions()))
+                .thenThrow(new Exception("API Error"));
+
+        ForecastSnapshot first = predictionService.refresh();
+        ForecastSnapshot second = predictionService.refresh();
+
+        assertSame(first, second);
+        assertSame(first, predictionService.getSnapshot());
+        assertEquals(CurrencyPredictionResponse.STATUS_OK, predictionService.getAllPredictions().get(0).getStatus());
     }
 
     @Test
     void testGetHistoricalRates_Success() throws Exception {
         String currency = "EUR";
-        Map<LocalDate, Double> expectedRates = createMockHistoricalRates();
+        RateSeries expectedRates = createMockHistoricalRates();
         when(currencyPredictor.getHistoricalRates(currency)).thenReturn(expectedRates);
 
-        Map<LocalDate, Double> actualRates = predictionService.getHistoricalRates(currency);
+        RateSeries actualRates = predictionService.getHistoricalRates(currency);
 
         assertEquals(expectedRates, actualRates);
         verify(currencyPredictor, times(1)).getHistoricalRates(currency);
@@ -154,10 +227,10 @@ class CurrencyPredictionServiceTest {
     @Test
     void testGetFuturePredictions_Success() throws Exception {
         String currency = "EUR";
-        Map<LocalDate, Double> expectedPredictions = createMockFuturePredictions();
+        RateSeries expectedPredictions = createMockFuturePredictions();
         when(currencyPredictor.predictFutureRates(currency)).thenReturn(expectedPredictions);
 
-        Map<LocalDate, Double> actualPredictions = predictionService.getFuturePredictions(currency);
+        RateSeries actualPredictions = predictionService.getFuturePredictions(currency);
 
         assertEquals(expectedPredictions, actualPredictions);
         verify(currencyPredictor, times(1)).predictFutureRates(currency);
@@ -187,25 +260,49 @@ class CurrencyPredictionServiceTest {
     }
 
 
-    private Map<LocalDate, Double> createMockHistoricalRates() {
-        Map<LocalDate, Double> rates = new LinkedHashMap<>();
-        LocalDate today = LocalDate.now();
+    @Test
+    void testGetFuturePredictions_CustomWindowAndHorizon() throws Exception {
+        RateSeries historicalRates = createMockHistoricalRates();
+        RateSeries futurePredictions = RateSeries.of(LocalDate.now().plusDays(1), new double[30]);
+        when(currencyPredictor.getModelFor("EUR")).thenReturn("linear");
+        when(currencyPredictor.predict("EUR", "linear", 90, 30))
+                .thenReturn(CurrencyForecast.from("EUR", historicalRates, futurePredictions));
+
+        RateSeries actual = predictionService.getFuturePredictions("EUR", null, 90, 30);
 
-        for (int i = 3; i >= 0; i--) {
-            rates.put(today.minusDays(i), 1.10);
-        }
+        assertEquals(futurePredictions, actual);
+        verify(currencyPredictor, never()).predict("EUR");
+    }
 
-        return rates;
+    @Test
+    void testIsValidRange() {
+        assertTrue(predictionService.isValidRange(null, null));
+        assertTrue(predictionService.isValidRange(90, 90));
+        assertFalse(predictionService.isValidRange(1, null));
+        assertFalse(predictionService.isValidRange(null, 0));
+        assertFalse(predictionService.isValidRange(null, CurrencyPredictor.MAX_HORIZON_DAYS + 1));
     }
 
-    private Map<LocalDate, Double> createMockFuturePredictions() {
-        Map<LocalDate, Double> predictions = new LinkedHashMap<>();
-        LocalDate today = LocalDate.now();
+    @Test
+    void testBacktest_RejectsOutOfRangeInputs() throws Exception {
+        List<String> models = List.of("linear");
+
+        assertThrows(IllegalArgumentException.class, () -> predictionService.backtest(models, 1, 7, 365));
+        assertThrows(IllegalArgumentException.class,
+                () -> predictionService.backtest(models, CurrencyPredictor.MAX_WINDOW_DAYS + 1, 7, 1095));
+        assertThrows(IllegalArgumentException.class,
+                () -> predictionService.backtest(models, 30, CurrencyPredictor.MAX_HORIZON_DAYS + 1, 1095));
+        assertThrows(IllegalArgumentException.class, () -> predictionService.backtest(models, 30, 7, 36));
+        assertThrows(IllegalArgumentException.class, () -> predictionService.backtest(models, 30, 7, 2_000_000_000));
+
+        verify(currencyPredictor, never()).getHistoricalRates(anyString(), anyInt());
+    }
 
-        for (int i = 1; i <= 7; i++) {
-            predictions.put(today.plusDays(i), 1.15);
-        }
+    private RateSeries createMockHistoricalRates() {
+        return RateSeries.of(LocalDate.now().minusDays(3), 1.10, 1.10, 1.10, 1.10);
+    }
 
-        return predictions;
+    private RateSeries createMockFuturePredictions() {
+        return RateSeries.of(LocalDate.now().plusDays(1), 1.15, 1.15, 1.15, 1.15, 1.15, 1.15, 1.15);
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package org.example.project.service;
+
+import org.example.project.DatabaseManager;
+import org.example.project.ExpenseRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseExportServiceTest {
+
+    private static final List<ExpenseRow> ROWS = List.of(
+            new ExpenseRow(1, 3, "Food", 1250, "2024-01-01", "2024-01-01", "USD"),
+            new ExpenseRow(2, 4, "Travel, \"Air\"", 30000, "2024-01-04", "2024-01-04", "EUR")
+    );
+
+    @Mock
+    private DatabaseManager databaseManager;
+
+    private ExpenseExportService exportService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        exportService = new ExpenseExportService(databaseManager, 100, 1);
+        when(databaseManager.forEachExpense(eq(100), any())).thenAnswer(invocation -> {
+            DatabaseManager.ExpenseRowConsumer consumer = invocation.getArgument(1);
+            for (ExpenseRow row : ROWS) {
+                consumer.accept(row);
+            }
+            return (long) ROWS.size();
+        });
+    }
+
+    @Test
+    void testExportCsv_QuotesFieldsWhenNeeded() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = exportService.export(output, ExpenseImportService.Format.CSV, false);
+
+        assertEquals(2, rows);
+        assertEquals("""
+                id,categoryId,category,amountCents,transactionDate,expenseDate,currency
+                1,3,Food,1250,2024-01-01,2024-01-01,USD
+                2,4,"Travel, ""Air\""",30000,2024-01-04,2024-01-04,EUR
+                """, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportNdjson_Gzipped() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(output, ExpenseImportService.Format.NDJSON, true);
+
+        String json;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            json = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals("""
+                {"id":1,"categoryId":3,"category":"Food","amountCents":1250,"transactionDate":"2024-01-01","expenseDate":"2024-01-01","currency":"USD"}
+                {"id":2,"categoryId":4,"category":"Travel, \\"Air\\"","amountCents":30000,"transactionDate":"2024-01-04","expenseDate":"2024-01-04","currency":"EUR"}
+                """, json);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.project.service;
+
+import org.example.project.BatchInsertResult;
+import org.example.project.DatabaseManager;
+import org.example.project.NewExpense;
+import org.example.project.dto.ApiDTOs.ImportReportResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseImportServiceTest {
+
+    @Mock
+    private DatabaseManager databaseManager;
+
+    private ExpenseImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ExpenseImportService(databaseManager, 2, 4);
+    }
+
+    @Test
+    void testImportCsv_RejectsInvalidRowsAndWritesTheRest() throws Exception {
+        String csv = """
+                categoryName,amount,transactionDate,expenseDate,currency
+                Food,12.50,2024-01-01,2024-01-01,USD
+                Food,-3,2024-01-02,2024-01-02,USD
+                Food,abc,2024-01-03,2024-01-03,USD
+                "Travel, Air",300,2024-01-04,2024-01-04,USD
+                """;
+        when(databaseManager.getUsdConversionRate("USD")).thenReturn(1.0);
+        when(databaseManager.addExpenses(anyList(), anyMap())).thenReturn(new BatchInsertResult(2, Map.of()));
+
+        ImportReportResponse report = importService.importExpenses(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExpenseImportService.Format.CSV);
+
+        assertTrue(report.isCompleted());
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(3, report.getErrors().get(0).getIndex());
+        assertEquals(4, report.getErrors().get(1).getIndex());
+        verify(databaseManager, times(1)).addExpenses(eq(Arrays.asList(
+                new NewExpense("Food", 12.50, "2024-01-01", "2024-01-01", "USD"),
+                new NewExpense("Travel, Air", 300.0, "2024-01-04", "2024-01-04", "USD")
+        )), anyMap());
+    }
+
+    @Test
+    void testImportNdjson_FetchesEachCurrencyRateOnce() throws Exception {
+        String ndjson = """
+                {"categoryName":"Food","amount":10,"transactionDate":"2024-01-01","expenseDate":"2024-01-01","currency":"EUR"}
+                {"categoryName":"Food","amount":20,"transactionDate":"2024-01-02","expenseDate":"2024-01-02","currency":"EUR"}
+                {"categoryName":"Food","amount":30,"transactionDate":"2024-01-03","expenseDate":"2024-01-03","currency":"EUR"}
+                """;
+        when(databaseManager.getUsdConversionRate("EUR")).thenReturn(1.1);
+        when(databaseManager.addExpenses(anyList(), anyMap()))
+                .thenReturn(new BatchInsertResult(2, Map.of()), new BatchInsertResult(1, Map.of()));
+
+        ImportReportResponse report = importService.importExpenses(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ExpenseImportService.Format.NDJSON);
+
+        assertEquals(3, report.getRowsRead());
+        assertEquals(3, report.getRowsImported());
+        assertEquals(0, report.getRowsRejected());
+        verify(databaseManager, times(1)).getUsdConversionRate("EUR");
+        verify(databaseManager, times(2)).addExpenses(anyList(), anyMap());
+    }
+
+    @Test
+    void testImportCsv_MissingHeaderColumn_Throws() {
+        String csv = "categoryName,amount\nFood,10\n";
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            importService.importExpenses(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ExpenseImportService.Format.CSV);
+        });
+
+        verifyNoInteractions(databaseManager);
+    }
+
+    @Test
+    void testSplitCsvLine_HandlesQuotedFields() {
+        List<String> fields = ExpenseImportService.splitCsvLine("\"a, b\",\"say \"\"hi\"\"\",c");
+
+        assertEquals(Arrays.asList("a, b", "say \"hi\"", "c"), fields);
+    }
+}
@@ -1,6 +1,12 @@
 package org.example.project.service;
 
+import org.example.project.BatchInsertResult;
+import org.example.project.ConnectionPool;
 import org.example.project.DatabaseManager;
+import org.example.project.ExpensePage;
+import org.example.project.ExpenseQuery;
+import org.example.project.ExpenseRow;
+import org.example.project.NewExpense;
 import org.example.project.dto.ApiDTOs.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +16,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -97,31 +105,30 @@ class ExpenseServiceTest {
 
 
     @Test
-    void testGetAllExpenses_Success() throws SQLException {
-        List<String> expectedExpenses = Arrays.asList(
-                "[ID 1] Category: Food, Amount: 50.00 USD",
-                "[ID 2] Category: Transport, Amount: 30.00 USD"
-        );
-        when(databaseManager.getAllExpenses()).thenReturn(expectedExpenses);
-
-        List<String> actualExpenses = expenseService.getAllExpenses();
-
-        assertEquals(expectedExpenses, actualExpenses);
-        verify(databaseManager, times(1)).getAllExpenses();
+    void testFindExpenses_ReturnsPage() throws SQLException {
+        ExpenseQuery query = new ExpenseQuery("Food", 10, 2, "2024-01-01", "2024-01-31", 5.0, null);
+        ExpensePage expectedPage = new ExpensePage(List.of(
+                new ExpenseRow(11, 1, "Food", 5000, "2024-01-01", "2024-01-02", "USD"),
+                new ExpenseRow(14, 1, "Food", 700, "2024-01-03", "2024-01-03", "EUR")
+        ), 14);
+        when(databaseManager.findExpenses(query)).thenReturn(expectedPage);
+
+        ExpensePage page = expenseService.findExpenses(query);
+
+        assertEquals(expectedPage, page);
+        assertEquals(Integer.valueOf(14), page.nextAfter());
     }
 
     @Test
-    void testGetExpensesByCategory_Success() throws SQLException {
-        String categoryName = "Food";
-        List<String> expectedExpenses = Arrays.asList(
-                "[ID 1] Amount: 50.00 USD, Transaction Date: 2024-01-01"
-        );
-        when(databaseManager.getExpensesByCategory(categoryName)).thenReturn(expectedExpenses);
-
-        List<String> actualExpenses = expenseService.getExpensesByCategory(categoryName);
-
-        assertEquals(expectedExpenses, actualExpenses);
-        verify(databaseManager, times(1)).getExpensesByCategory(categoryName);
+    void testExpenseQuery_RejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> ExpenseQuery.firstPage(0));
+        assertThrows(IllegalArgumentException.class, () -> ExpenseQuery.firstPage(ExpenseQuery.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExpenseQuery(null, -1, 10, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExpenseQuery(null, 0, 10, "01/02/2024", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExpenseQuery(null, 0, 10, null, null, 10.0, 5.0));
     }
 
     @Test
@@ -180,6 +187,40 @@ class ExpenseServiceTest {
         verifyNoInteractions(databaseManager);
     }
 
+    @Test
+    void testAddExpenses_ReportsValidationAndDatabaseErrorsByRow() throws SQLException {
+        List<ExpenseRequest> requests = Arrays.asList(
+                new ExpenseRequest("Food", 10.0, "2024-01-01", "2024-01-01", "USD"),
+                new ExpenseRequest("Food", -5.0, "2024-01-01", "2024-01-01", "USD"),
+                new ExpenseRequest("Unknown", 20.0, "2024-01-02", "2024-01-02", "USD")
+        );
+        when(databaseManager.addExpenses(anyList()))
+                .thenReturn(new BatchInsertResult(1, Map.of(1, "Category does not exist.")));
+
+        BatchExpenseResponse response = expenseService.addExpenses(requests);
+
+        assertEquals(3, response.getReceived());
+        assertEquals(1, response.getInserted());
+        assertEquals(2, response.getErrors().size());
+        assertEquals(1, response.getErrors().get(0).getIndex());
+        assertEquals("Amount must be positive", response.getErrors().get(0).getMessage());
+        assertEquals(2, response.getErrors().get(1).getIndex());
+        assertEquals("Category does not exist.", response.getErrors().get(1).getMessage());
+        verify(databaseManager, times(1)).addExpenses(Arrays.asList(
+                new NewExpense("Food", 10.0, "2024-01-01", "2024-01-01", "USD"),
+                new NewExpense("Unknown", 20.0, "2024-01-02", "2024-01-02", "USD")
+        ));
+    }
+
+    @Test
+    void testAddExpenses_EmptyBatch_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            expenseService.addExpenses(List.of());
+        });
+
+        verifyNoInteractions(databaseManager);
+    }
+
     @Test
     void testDeleteExpense_Success() throws SQLException {
         int expenseId = 1;
@@ -207,10 +248,10 @@ class ExpenseServiceTest {
 
     @Test
     void testGenerateReport_Success() throws SQLException {
-        when(databaseManager.getTotalExpenses()).thenReturn(100.0);
-        when(databaseManager.getCategories()).thenReturn(Arrays.asList("Food", "Transport"));
-        when(databaseManager.getTotalExpensesByCategory("Food")).thenReturn(60.0);
-        when(databaseManager.getTotalExpensesByCategory("Transport")).thenReturn(40.0);
+        Map<String, Double> categoryTotals = new LinkedHashMap<>();
+        categoryTotals.put("Food", 60.0);
+        categoryTotals.put("Transport", 40.0);
+        when(databaseManager.getCategoryTotals()).thenReturn(categoryTotals);
 
         ReportResponse report = expenseService.generateReport();
 
@@ -228,17 +269,15 @@ class ExpenseServiceTest {
         assertEquals(40.0, transportBreakdown.getTotal());
         assertEquals(40.0, transportBreakdown.getPercentage(), 0.01);
 
-        verify(databaseManager, times(1)).getTotalExpenses();
-        verify(databaseManager, times(1)).getCategories();
-        verify(databaseManager, times(1)).getTotalExpensesByCategory("Food");
-        verify(databaseManager, times(1)).getTotalExpensesByCategory("Transport");
+        verify(databaseManager, times(1)).getCategoryTotals();
+        verify(databaseManager, never()).getTotalExpensesByCategory(anyString());
     }
 
     @Test
     void testGenerateReport_NoExpenses() throws SQLException {
-        when(databaseManager.getTotalExpenses()).thenReturn(0.0);
-        when(databaseManager.getCategories()).thenReturn(Arrays.asList("Food"));
-        when(databaseManager.getTotalExpensesByCategory("Food")).thenReturn(0.0);
+        Map<String, Double> categoryTotals = new LinkedHashMap<>();
+        categoryTotals.put("Food", 0.0);
+        when(databaseManager.getCategoryTotals()).thenReturn(categoryTotals);
 
         ReportResponse report = expenseService.generateReport();
 
@@ -270,4 +309,25 @@ class ExpenseServiceTest {
         assertEquals(125.50, total);
         verify(databaseManager, times(1)).getTotalExpensesByCategory(categoryName);
     }
+
+    @Test
+    void testGetPoolMetrics_DelegatesToDatabaseManager() {
+        ConnectionPool.Metrics metrics = new ConnectionPool.Metrics(4, 1, 2, 3, false, 0, 0, 10, 0, 0.5, 2.0);
+        when(databaseManager.getPoolMetrics()).thenReturn(metrics);
+
+        ConnectionPool.Metrics actual = expenseService.getPoolMetrics();
+
+        assertSame(metrics, actual);
+        verify(databaseManager, times(1)).getPoolMetrics();
+    }
+
+    @Test
+    void testVerifyCategoryTotals_ReturnsMismatches() throws SQLException {
+        when(databaseManager.verifyCategoryTotals()).thenReturn(Arrays.asList("Food"));
+
+        List<String> mismatches = expenseService.verifyCategoryTotals();
+
+        assertEquals(Arrays.asList("Food"), mismatches);
+        verify(databaseManager, times(1)).verifyCategoryTotals();
+    }
 }
\ No newline at end of file